@@ -12,6 +12,8 @@ plugins {
     //alias(libs.plugins.spotless)
     alias(libs.plugins.owaspDependencyCheck)
     alias(libs.plugins.lombok)
+    alias(libs.plugins.graalvmNative) apply false
+    alias(libs.plugins.jmh)
 }
 
 group = "com.devices"
@@ -101,10 +103,108 @@ configure<DependencyCheckExtension> {
     failBuildOnCVSS = 7.0F
 }
 
+// Startup-optimized image: `-Paot` packages the Spring AOT-processed application, `-Pcds` adds the
+// class-data-sharing archive produced by `./gradlew cdsArchive -Paot` (see README).
+val aotEnabled = providers.gradleProperty("aot").map { it.isEmpty() || it.toBoolean() }.getOrElse(false)
+val cdsEnabled = providers.gradleProperty("cds").map { it.isEmpty() || it.toBoolean() }.getOrElse(false)
+val cdsDirectory = layout.buildDirectory.dir("cds")
+val imageName = "${project.name}:${project.version}"
+
+if (aotEnabled) {
+    apply(plugin = "org.springframework.boot.aot")
+}
+
 jib {
     dockerClient {
         executable = findDocker().toString()
     }
+    container {
+        val flags = mutableListOf<String>()
+        if (aotEnabled) {
+            flags += "-Dspring.aot.enabled=true"
+        }
+        if (cdsEnabled) {
+            flags += listOf("-XX:SharedArchiveFile=/app/cds/application.jsa", "-Xshare:auto")
+        }
+        jvmFlags = flags
+    }
+    extraDirectories {
+        paths {
+            if (aotEnabled) {
+                path {
+                    setFrom(layout.buildDirectory.dir("classes/java/aot"))
+                    into = "/app/classes"
+                }
+                path {
+                    setFrom(layout.buildDirectory.dir("resources/aot"))
+                    into = "/app/resources"
+                }
+            }
+            if (cdsEnabled) {
+                path {
+                    setFrom(cdsDirectory)
+                    into = "/app/cds"
+                }
+            }
+        }
+    }
+}
+
+if (aotEnabled) {
+    tasks.matching { it.name in setOf("jib", "jibDockerBuild", "jibBuildTar") }.configureEach {
+        dependsOn("compileAotJava", "processAotResources")
+    }
+}
+
+if (cdsEnabled) {
+    tasks.matching { it.name in setOf("jib", "jibDockerBuild", "jibBuildTar") }.configureEach {
+        doFirst {
+            check(cdsDirectory.get().file("application.jsa").asFile.exists()) {
+                "No CDS archive at ${cdsDirectory.get().asFile}. Run ./gradlew cdsArchive -Paot first."
+            }
+        }
+    }
+}
+
+// GraalVM native executable for small edge VMs: `./gradlew nativeCompile -Pnative` (needs a GraalVM JDK 21+).
+// The Spring Boot plugin applies AOT processing automatically once the native plugin is present.
+val nativeEnabled = providers.gradleProperty("native").map { it.isEmpty() || it.toBoolean() }.getOrElse(false)
+
+if (nativeEnabled) {
+    apply(plugin = "org.graalvm.buildtools.native")
+    extensions.configure<org.graalvm.buildtools.gradle.dsl.GraalVMExtension>("graalvmNative") {
+        metadataRepository {
+            enabled.set(true)
+        }
+        binaries.named("main") {
+            imageName.set(project.name)
+            buildArgs.add("-H:+ReportExceptionStackTraces")
+        }
+    }
+}
+
+// Training run for the CDS archive: starts the freshly built image until the application context has
+// refreshed and dumps the loaded classes. Needs the database from compose.yaml (or SPRING_DATASOURCE_URL).
+val cdsArchive by tasks.registering(Exec::class) {
+    description = "Builds the AOT image and records a CDS archive into build/cds by running it once."
+    group = "build"
+    dependsOn("jibDockerBuild")
+    doFirst {
+        cdsDirectory.get().asFile.mkdirs()
+    }
+    val datasourceUrl = System.getenv("SPRING_DATASOURCE_URL") ?: "jdbc:postgresql://localhost:5432/devices_db"
+    commandLine(
+        findDocker().toString(), "run", "--rm", "--network", "host",
+        "-v", "${cdsDirectory.get().asFile.absolutePath}:/app/cds-out",
+        "-e", "SPRING_DATASOURCE_URL=$datasourceUrl",
+        "--entrypoint", "java",
+        imageName,
+        "-XX:ArchiveClassesAtExit=/app/cds-out/application.jsa",
+        "-Dspring.context.exit=onRefresh",
+        "-Dspring.aot.enabled=$aotEnabled",
+        "-cp", "@/app/jib-classpath-file",
+        "com.devices.DeviceManagementApplication"
+    )
 }
 
 fun findDocker(): File {
@@ -144,7 +244,7 @@ dependencies {
     testImplementation(libs.testcontainers.postgresql)
     testImplementation(libs.restassured)
     testImplementation(libs.archunit)
-    runtimeOnly(libs.postgresql)
+    implementation(libs.postgresql)
     testRuntimeOnly(libs.junit.platform.launcher)
 }
 
@@ -189,7 +289,9 @@ tasks.named<JacocoCoverageVerification>("jacocoTestCoverageVerification").config
 }
 
 tasks.test {
-    useJUnitPlatform()
+    useJUnitPlatform {
+        excludeTags("benchmark")
+    }
     jvmArgs(
         "--add-opens=java.base/java.lang=ALL-UNNAMED",
         "--add-opens=java.base/java.util=ALL-UNNAMED",
@@ -198,6 +300,34 @@ tasks.test {
     finalizedBy(tasks.jacocoTestReport)
 }
 
+val benchmark by tasks.registering(Test::class) {
+    description = "Runs the load benchmarks tagged 'benchmark' against a Testcontainers PostgreSQL."
+    group = "verification"
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("benchmark")
+    }
+    jvmArgs(
+        "--add-opens=java.base/java.lang=ALL-UNNAMED",
+        "--add-opens=java.base/java.util=ALL-UNNAMED",
+        "--add-opens=java.base/java.lang.invoke=ALL-UNNAMED"
+    )
+    testLogging {
+        showStandardStreams = true
+    }
+    outputs.upToDateWhen { false }
+    shouldRunAfter(tasks.test)
+}
+
+// Micro-benchmarks under src/jmh: ./gradlew jmh [-PjmhIncludes=ErrorPath]
+jmh {
+    jmhVersion = libs.versions.jmh.get()
+    providers.gradleProperty("jmhIncludes").orNull?.let { includes = listOf(it) }
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+}
+
 tasks.check {
     dependsOn(tasks.checkstyleMain, tasks.checkstyleTest)
     dependsOn(tasks.pmdMain, tasks.pmdTest)
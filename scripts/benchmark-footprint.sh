@@ -0,0 +1,69 @@
+#!/usr/bin/env bash
+# Startup time, resident memory (idle and under load) and throughput of the JVM build versus the
+# GraalVM native executable.
+#
+# Usage:
+#   scripts/benchmark-footprint.sh jar    [duration]   # ./gradlew bootJar
+#   scripts/benchmark-footprint.sh native [duration]   # ./gradlew nativeCompile -Pnative
+#
+# Requires the PostgreSQL from compose.yaml (docker compose up -d) and 'hey' (https://github.com/rakyll/hey)
+# on the PATH. CONCURRENCY (default 32) sets the number of load-generating connections.
+set -euo pipefail
+
+MODE="${1:?mode must be 'jar' or 'native'}"
+DURATION="${2:-30s}"
+CONCURRENCY="${CONCURRENCY:-32}"
+PORT="${PORT:-18080}"
+BASE="http://localhost:${PORT}/api/v1/devices"
+export SPRING_DATASOURCE_URL="${SPRING_DATASOURCE_URL:-jdbc:postgresql://localhost:5432/devices_db}"
+
+case "$MODE" in
+  jar)
+    JAR="$(ls build/libs/*-SNAPSHOT.jar | grep -v -e plain -e sources -e javadoc | head -n 1)"
+    COMMAND=(java -jar "$JAR" --server.port="$PORT")
+    ;;
+  native)
+    COMMAND=(build/native/nativeCompile/device-management-service --server.port="$PORT")
+    ;;
+  *)
+    echo "Unknown mode '$MODE'" >&2
+    exit 1
+    ;;
+esac
+
+command -v hey > /dev/null || { echo "'hey' is required for the load phase" >&2; exit 1; }
+
+rss_mb() {
+  echo $(( $(ps -o rss= -p "$1") / 1024 ))
+}
+
+begin="$(date +%s%3N)"
+"${COMMAND[@]}" > /dev/null 2>&1 &
+pid="$!"
+trap 'kill "$pid" 2> /dev/null || true' EXIT
+
+until curl -fs -o /dev/null "$BASE"; do
+  sleep 0.02
+done
+startup=$(( $(date +%s%3N) - begin ))
+
+device_id="$(curl -fs -H 'Content-Type: application/json' \
+  -d '{"name":"Footprint","brand":"Bench"}' "$BASE" | sed -E 's/.*"id":"([^"]+)".*/\1/')"
+
+sleep 5
+idle_rss="$(rss_mb "$pid")"
+
+hey -z "$DURATION" -c "$CONCURRENCY" "${BASE}/${device_id}" > /tmp/benchmark-footprint-hey.txt &
+hey_pid="$!"
+peak_rss="$idle_rss"
+while kill -0 "$hey_pid" 2> /dev/null; do
+  current="$(rss_mb "$pid")"
+  if (( current > peak_rss )); then
+    peak_rss="$current"
+  fi
+  sleep 1
+done
+throughput="$(awk '/Requests\/sec/ {print $2}' /tmp/benchmark-footprint-hey.txt)"
+p99="$(awk '/99% in/ {print $3}' /tmp/benchmark-footprint-hey.txt)"
+
+echo "mode=${MODE} startup_ms=${startup} rss_idle_mb=${idle_rss} rss_load_peak_mb=${peak_rss} throughput_rps=${throughput} p99_s=${p99}"
@@ -0,0 +1,80 @@
+#!/usr/bin/env bash
+# Measures time from process start to the first successful GET /api/v1/devices.
+#
+# Usage:
+#   scripts/benchmark-startup.sh jar   [runs]          # java -jar build/libs/*-SNAPSHOT.jar (./gradlew bootJar)
+#   scripts/benchmark-startup.sh image <image> [runs]   # docker image built with ./gradlew jibDockerBuild [-Paot] [-Pcds]
+#
+# Requires the PostgreSQL from compose.yaml (docker compose up -d) or SPRING_DATASOURCE_URL.
+set -euo pipefail
+
+MODE="${1:?mode must be 'jar' or 'image'}"
+PORT="${PORT:-18080}"
+URL="http://localhost:${PORT}/api/v1/devices"
+DATASOURCE_URL="${SPRING_DATASOURCE_URL:-jdbc:postgresql://localhost:5432/devices_db}"
+
+case "$MODE" in
+  jar)
+    RUNS="${2:-5}"
+    JAR="$(ls build/libs/*-SNAPSHOT.jar | grep -v -e plain -e sources -e javadoc | head -n 1)"
+    ;;
+  image)
+    IMAGE="${2:?image name required, e.g. device-management-service:0.0.1-SNAPSHOT}"
+    RUNS="${3:-5}"
+    ;;
+  *)
+    echo "Unknown mode '$MODE'" >&2
+    exit 1
+    ;;
+esac
+
+now_ms() {
+  date +%s%3N
+}
+
+start_app() {
+  if [[ "$MODE" == "jar" ]]; then
+    SPRING_DATASOURCE_URL="$DATASOURCE_URL" java -jar "$JAR" --server.port="$PORT" > /dev/null 2>&1 &
+    echo "$!"
+  else
+    docker run -d --rm --network host \
+      -e SPRING_DATASOURCE_URL="$DATASOURCE_URL" \
+      -e SERVER_PORT="$PORT" \
+      "$IMAGE"
+  fi
+}
+
+stop_app() {
+  if [[ "$MODE" == "jar" ]]; then
+    kill "$1" 2> /dev/null || true
+    while kill -0 "$1" 2> /dev/null; do
+      sleep 0.1
+    done
+  else
+    docker stop "$1" > /dev/null
+  fi
+}
+
+total=0
+best=""
+for run in $(seq 1 "$RUNS"); do
+  begin="$(now_ms)"
+  handle="$(start_app)"
+  until curl -fs -o /dev/null "$URL"; do
+    if (( $(now_ms) - begin > 120000 )); then
+      echo "Application did not answer within 120s" >&2
+      stop_app "$handle"
+      exit 1
+    fi
+    sleep 0.02
+  done
+  elapsed=$(( $(now_ms) - begin ))
+  stop_app "$handle"
+  echo "run ${run}: ${elapsed} ms to first successful GET /api/v1/devices"
+  total=$(( total + elapsed ))
+  if [[ -z "$best" || "$elapsed" -lt "$best" ]]; then
+    best="$elapsed"
+  fi
+done
+
+echo "${MODE} ${IMAGE:-$JAR}: best ${best} ms, average $(( total / RUNS )) ms over ${RUNS} runs"
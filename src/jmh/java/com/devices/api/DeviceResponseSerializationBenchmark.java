@@ -0,0 +1,76 @@
+package com.devices.api;
+
+import com.devices.api.dto.DeviceResponse;
+import com.devices.domain.DeviceStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.module.SimpleModule;
+
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializing a list of devices to a byte stream with Jackson's default bean serializer and with
+ * {@link DeviceResponseSerializer}. Scores are per device; with the gc profiler
+ * ({@code ./gradlew jmh -PjmhIncludes=DeviceResponseSerialization}) {@code gc.alloc.rate.norm} is bytes
+ * allocated per device.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeviceResponseSerializationBenchmark {
+
+    private static final int DEVICES = 1_000;
+
+    private List<DeviceResponse> devices;
+
+    private ObjectWriter defaultWriter;
+
+    private ObjectWriter customWriter;
+
+    @Setup
+    public void setUp() {
+        DeviceStatus[] states = DeviceStatus.values();
+        devices = new ArrayList<>(DEVICES);
+        for (int i = 0; i < DEVICES; i++) {
+            devices.add(new DeviceResponse(UUID.randomUUID(), "Device " + i, "Brand " + i % 10, states[i % states.length],
+                    Instant.ofEpochSecond(1_700_000_000L + i, ThreadLocalRandom.current().nextInt(1_000) * 1_000_000)));
+        }
+        defaultWriter = JsonMapper.builder().build().writer();
+        customWriter = JsonMapper.builder().
+                addModule(new SimpleModule().addSerializer(DeviceResponse.class, new DeviceResponseSerializer())).
+                build().
+                writer();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DEVICES)
+    public void jacksonDefault() {
+        defaultWriter.writeValue(OutputStream.nullOutputStream(), devices);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DEVICES)
+    public void handWritten() {
+        customWriter.writeValue(OutputStream.nullOutputStream(), devices);
+    }
+}
@@ -0,0 +1,91 @@
+package com.devices.api;
+
+import com.devices.domain.DeviceNotFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+
+import java.net.URI;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a missing device into a 404 problem: throwing the exception from some depth and building
+ * the {@link ProblemDetail}. {@code legacy} reproduces the previous behavior (stack trace, eagerly formatted
+ * message, problem assembled field by field). Run with {@code ./gradlew jmh -PjmhIncludes=ErrorPath}; the
+ * gc profiler reports allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ErrorPathBenchmark {
+
+    private static final URI NOT_FOUND_TYPE = URI.create("https://api.example.com/errors/device-not-found");
+
+    private static final ProblemTemplate DEVICE_NOT_FOUND =
+            ProblemTemplate.of(HttpStatus.NOT_FOUND, "Device Not Found", NOT_FOUND_TYPE);
+
+    /**
+     * Frames between the throw and the handler; a servlet request through Spring MVC is well over 100 deep.
+     */
+    @Param({"20", "120"})
+    private int depth;
+
+    private final UUID id = UUID.randomUUID();
+
+    private final String path = "/api/v1/devices/" + id;
+
+    @Benchmark
+    public ProblemDetail legacy() {
+        try {
+            throwFrom(depth, true);
+            throw new IllegalStateException("unreachable");
+        } catch (RuntimeException e) {
+            ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND, e.getMessage());
+            problem.setTitle("Device Not Found");
+            problem.setType(NOT_FOUND_TYPE);
+            problem.setInstance(URI.create(path));
+            return problem;
+        }
+    }
+
+    @Benchmark
+    public ProblemDetail stackless() {
+        try {
+            throwFrom(depth, false);
+            throw new IllegalStateException("unreachable");
+        } catch (DeviceNotFoundException e) {
+            return DEVICE_NOT_FOUND.create(e.getMessage(), URI.create(path));
+        }
+    }
+
+    private void throwFrom(int remaining, boolean legacy) {
+        if (remaining > 0) {
+            throwFrom(remaining - 1, legacy);
+            return;
+        }
+        if (legacy) {
+            throw new LegacyDeviceNotFoundException(id);
+        }
+        throw new DeviceNotFoundException(id);
+    }
+
+    private static final class LegacyDeviceNotFoundException extends RuntimeException {
+
+        private LegacyDeviceNotFoundException(UUID deviceId) {
+            super("Device with id %s not found".formatted(deviceId));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.devices.api;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gradient based concurrency limit. The limit grows while the short-term latency stays close to the
+ * long-term baseline and shrinks as soon as requests start queueing (latency gradient below 1) or failing.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double LONG_WINDOW_ALPHA = 2.0 / (600 + 1);
+
+    private static final double SHORT_WINDOW_ALPHA = 2.0 / (10 + 1);
+
+    private static final double RTT_TOLERANCE = 1.5;
+
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double smoothing;
+
+    private final double backoffRatio;
+
+    private final double reservedRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile int limit;
+
+    private double estimatedLimit;
+
+    private double shortRttNanos;
+
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      double smoothing, double backoffRatio, double reservedRatio) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Concurrency limit bounds must satisfy 1 <= min <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.backoffRatio = backoffRatio;
+        this.reservedRatio = reservedRatio;
+        this.estimatedLimit = Math.clamp(initialLimit, minLimit, maxLimit);
+        this.limit = (int) estimatedLimit;
+    }
+
+    /**
+     * Admits a request if the in-flight count is below the current limit. Requests without priority only
+     * see the part of the limit that is not reserved for prioritized traffic.
+     */
+    public boolean tryAcquire(boolean prioritized) {
+        int currentLimit = limit;
+        int ceiling = prioritized ? currentLimit : Math.max(1, (int) (currentLimit * (1 - reservedRatio)));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= ceiling) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases an admitted request and feeds its latency into the limit estimate. A dropped request
+     * (timeout or server error) triggers a multiplicative decrease.
+     */
+    public void release(long rttNanos, boolean dropped) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        onSample(rttNanos, inFlightAtCompletion, dropped);
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtCompletion, boolean dropped) {
+        if (dropped) {
+            updateLimit(estimatedLimit * backoffRatio);
+            return;
+        }
+        if (rttNanos <= 0) {
+            return;
+        }
+
+        if (longRttNanos == 0) {
+            shortRttNanos = rttNanos;
+            longRttNanos = rttNanos;
+        } else {
+            shortRttNanos += SHORT_WINDOW_ALPHA * (rttNanos - shortRttNanos);
+            longRttNanos += LONG_WINDOW_ALPHA * (shortRttNanos - longRttNanos);
+        }
+
+        // Let the baseline follow the latency back down once a slow period is over.
+        if (longRttNanos / shortRttNanos > 2) {
+            longRttNanos *= 0.95;
+        }
+
+        // The application is not using the limit, so latency says nothing about whether it is too high.
+        if (inFlightAtCompletion < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.clamp(RTT_TOLERANCE * longRttNanos / shortRttNanos, MIN_GRADIENT, 1.0);
+        double queueSize = Math.sqrt(estimatedLimit);
+        double target = estimatedLimit * gradient + queueSize;
+        updateLimit(estimatedLimit * (1 - smoothing) + target * smoothing);
+    }
+
+    private void updateLimit(double candidate) {
+        estimatedLimit = Math.clamp(candidate, minLimit, maxLimit);
+        limit = (int) estimatedLimit;
+    }
+}
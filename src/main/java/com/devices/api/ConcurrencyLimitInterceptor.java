@@ -0,0 +1,85 @@
+package com.devices.api;
+
+import com.devices.config.ConcurrencyLimitProperties;
+import com.devices.config.ConcurrencyLimitProperties.Priority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".start";
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    private final ConcurrencyLimitProperties properties;
+
+    private final Counter rejectedReads;
+
+    private final Counter rejectedWrites;
+
+    public ConcurrencyLimitInterceptor(AdaptiveConcurrencyLimiter limiter,
+                                       ConcurrencyLimitProperties properties,
+                                       MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        this.properties = properties;
+        this.rejectedReads = rejectedCounter(meterRegistry, "read");
+        this.rejectedWrites = rejectedCounter(meterRegistry, "write");
+    }
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request,
+                             @NonNull HttpServletResponse response,
+                             @NonNull Object handler) {
+        boolean read = isRead(request, handler);
+        if (!limiter.tryAcquire(isPrioritized(read))) {
+            (read ? rejectedReads : rejectedWrites).increment();
+            throw new ServiceOverloadedException(
+                    "Service is at its concurrency limit of %d requests".formatted(limiter.getLimit()),
+                    properties.rejectionStatus(),
+                    properties.retryAfter()
+            );
+        }
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request,
+                                @NonNull HttpServletResponse response,
+                                @NonNull Object handler,
+                                @Nullable Exception ex) {
+        if (request.getAttribute(START_ATTRIBUTE) instanceof Long start) {
+            request.removeAttribute(START_ATTRIBUTE);
+            boolean dropped = ex != null || response.getStatus() >= 500;
+            limiter.release(System.nanoTime() - start, dropped);
+        }
+    }
+
+    private boolean isPrioritized(boolean read) {
+        return switch (properties.priority()) {
+            case NONE -> true;
+            case READS -> read;
+            case WRITES -> !read;
+        };
+    }
+
+    private static boolean isRead(HttpServletRequest request, Object handler) {
+        String method = request.getMethod();
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method)
+                || handler instanceof HandlerMethod handlerMethod && handlerMethod.hasMethodAnnotation(ReadOnlyEndpoint.class);
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String kind) {
+        return Counter.builder("devices.concurrency.rejected").
+                description("Requests shed by the adaptive concurrency limiter").
+                tag("kind", kind).
+                register(meterRegistry);
+    }
+}
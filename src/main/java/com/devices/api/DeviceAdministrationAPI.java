@@ -1,6 +1,7 @@
 package com.devices.api;
 
 import com.devices.api.dto.*;
+import com.devices.domain.CountMode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.headers.Header;
@@ -9,17 +10,31 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.UUID;
 
 @Tag(name = "Devices", description = "Device management operations")
 public interface DeviceAdministrationAPI {
+
+    String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    String TOTAL_COUNT_HEADER = "X-Total-Count";
+
+    String TOTAL_COUNT_ACCURACY_HEADER = "X-Total-Count-Accuracy";
+
     @Operation(
             summary = "Create a new device",
-            description = "Creates a device with the provided name and brand",
+            description = "Creates a device with the provided name and brand. With an Idempotency-Key header, "
+                    + "retries using the same key and payload return the original response instead of creating "
+                    + "another device; reusing a key with a different payload is rejected with 422.",
             responses = {
                     @ApiResponse(
                             responseCode = "201",
@@ -43,10 +58,19 @@ public interface DeviceAdministrationAPI {
                             responseCode = "409",
                             description = "Device already exists",
                             content = @Content(mediaType = "application/problem+json")
+                    ),
+                    @ApiResponse(
+                            responseCode = "422",
+                            description = "Idempotency-Key already used with a different payload",
+                            content = @Content(mediaType = "application/problem+json")
                     )
             }
     )
-    DeviceResponse createDevice(@Valid @RequestBody CreateDeviceRequest request);
+    DeviceResponse createDevice(
+            @Valid @RequestBody CreateDeviceRequest request,
+            @Parameter(description = "Client-generated key (max 255 characters) making retries safe", example = "3f0c2a4e-order-17")
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey
+    );
 
     @Operation(
             summary = "Get device by ID",
@@ -76,11 +100,25 @@ public interface DeviceAdministrationAPI {
 
     @Operation(
             summary = "Search devices",
-            description = "Get a list of devices filtered by brand, name, or status",
+            description = "Get a list of devices filtered by brand, name, or status. With 'size' the devices are "
+                    + "ordered by creation time and 'page' (default 0) selects the slice; the total is then counted "
+                    + "as with HEAD, in the given 'count' mode.",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
                             description = "List of devices matching criteria",
+                            headers = {
+                                    @Header(
+                                            name = TOTAL_COUNT_HEADER,
+                                            description = "Number of devices returned, or of all matching devices when paged",
+                                            schema = @Schema(type = "integer")
+                                    ),
+                                    @Header(
+                                            name = TOTAL_COUNT_ACCURACY_HEADER,
+                                            description = "'exact' or 'estimated'",
+                                            schema = @Schema(type = "string")
+                                    )
+                            },
                             content = @Content(
                                     mediaType = "application/json",
                                     schema = @Schema(implementation = DeviceResponse.class)
@@ -88,12 +126,47 @@ public interface DeviceAdministrationAPI {
                     ),
                     @ApiResponse(
                             responseCode = "400",
-                            description = "Invalid filter parameters",
+                            description = "Invalid filter parameters, count mode or page",
                             content = @Content(mediaType = "application/problem+json")
                     )
             }
     )
-    List<DeviceResponse> getAll(@Parameter(hidden = true) @Valid DeviceFilterRequest filter);
+    List<DeviceResponse> getAll(@Parameter(hidden = true) @Valid DeviceFilterRequest filter,
+                                @Parameter(description = "EXACT, ESTIMATED or AUTO; only used for paged requests", example = "AUTO") @RequestParam(defaultValue = "AUTO") CountMode count,
+                                @Parameter(hidden = true) HttpServletResponse response);
+
+    @Operation(
+            summary = "Count devices",
+            description = "Returns the number of devices matching the brand, name and status filters in the "
+                    + "X-Total-Count header without fetching them. 'count' selects EXACT (count(*)), ESTIMATED "
+                    + "(the query planner's estimate, constant cost) or AUTO (exact while the estimate is at most "
+                    + "devices.count.exact-threshold). X-Total-Count-Accuracy tells which one was used.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Count in headers, no body",
+                            headers = {
+                                    @Header(
+                                            name = TOTAL_COUNT_HEADER,
+                                            description = "Number of matching devices",
+                                            schema = @Schema(type = "integer")
+                                    ),
+                                    @Header(
+                                            name = TOTAL_COUNT_ACCURACY_HEADER,
+                                            description = "'exact' or 'estimated'",
+                                            schema = @Schema(type = "string")
+                                    )
+                            }
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid filter parameters or count mode"
+                    )
+            }
+    )
+    void countDevices(@Parameter(hidden = true) @Valid DeviceFilterRequest filter,
+                      @Parameter(description = "EXACT, ESTIMATED or AUTO", example = "AUTO") @RequestParam(defaultValue = "AUTO") CountMode count,
+                      @Parameter(hidden = true) HttpServletResponse response);
 
     @Operation(
             summary = "Delete a device",
@@ -169,4 +242,146 @@ public interface DeviceAdministrationAPI {
             @PathVariable UUID id,
             @Valid @RequestBody PatchDeviceRequest patch
     );
+
+    @Operation(
+            summary = "Claim available devices",
+            description = "Atomically moves up to 'count' AVAILABLE devices, optionally of one brand, to IN_USE. "
+                    + "Concurrent callers always receive distinct devices; fewer devices than requested are returned "
+                    + "when not enough are available.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Devices claimed by this call (possibly empty)",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = DeviceResponse.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid request payload",
+                            content = @Content(mediaType = "application/problem+json")
+                    )
+            }
+    )
+    List<DeviceResponse> claimDevices(@Valid @RequestBody ClaimDevicesRequest request);
+
+    @Operation(
+            summary = "Import devices from CSV",
+            description = "Streams CSV rows (name, brand and an optional state, defaulting to AVAILABLE) into the "
+                    + "devices table using PostgreSQL COPY. An optional 'name,brand[,state]' header line is skipped. "
+                    + "Rows failing the same validation as device creation are skipped and reported; all other rows "
+                    + "are inserted in a single transaction.",
+            requestBody = @RequestBody(
+                    required = true,
+                    content = @Content(
+                            mediaType = "text/csv",
+                            schema = @Schema(type = "string", example = "name,brand,state\nThermostat,Nest,AVAILABLE")
+                    )
+            ),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Import finished",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = DeviceImportResponse.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "415",
+                            description = "Body is not text/csv",
+                            content = @Content(mediaType = "application/problem+json")
+                    )
+            }
+    )
+    DeviceImportResponse importDevices(@Parameter(hidden = true) InputStream csv);
+
+    @Operation(
+            summary = "Export devices as CSV",
+            description = "Streams all devices matching the brand, name and status filters as CSV "
+                    + "(id,name,brand,state,creationTime) directly from PostgreSQL COPY. Rows are not ordered.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "CSV export",
+                            content = @Content(mediaType = "text/csv", schema = @Schema(type = "string"))
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid filter parameters",
+                            content = @Content(mediaType = "application/problem+json")
+                    )
+            }
+    )
+    void exportDevices(@Parameter(hidden = true) @Valid DeviceFilterRequest filter,
+                       @Parameter(hidden = true) HttpServletResponse response) throws IOException;
+
+    @Operation(
+            summary = "Get device state history",
+            description = "Returns the state transitions of a device, newest first, including its deletion. "
+                    + "Transitions are written asynchronously shortly after they commit. Use 'nextCursor' from a "
+                    + "response as 'cursor' to fetch the following page.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "A page of state transitions (empty for unknown devices)",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = DeviceHistoryResponse.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid ID, cursor or limit",
+                            content = @Content(mediaType = "application/problem+json")
+                    )
+            }
+    )
+    DeviceHistoryResponse getDeviceHistory(
+            @PathVariable UUID id,
+            @Parameter(description = "Cursor returned as 'nextCursor' by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Maximum number of entries (1-500)", example = "50") @RequestParam(defaultValue = "50") int limit
+    );
+
+    @Operation(
+            summary = "Look up many devices by id",
+            description = "Fetches up to devices.lookup.max-ids distinct devices with a single query. Found devices "
+                    + "are returned in request order; unknown ids are listed in 'missingIds'.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Devices found and ids not found",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = DeviceLookupResponse.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "No ids, too many ids or malformed ids",
+                            content = @Content(mediaType = "application/problem+json")
+                    )
+            }
+    )
+    DeviceLookupResponse lookupDevices(@Valid @RequestBody DeviceLookupRequest request);
+
+    @Operation(
+            summary = "Device statistics",
+            description = "Returns the number of devices per brand and state from counters kept in memory, without "
+                    + "querying the database. The counters follow this instance's writes immediately and are "
+                    + "reconciled with the database every devices.inventory.reconcile-interval, which also picks up "
+                    + "writes made by other instances.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Counts by brand and state",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = DeviceStatsResponse.class)
+                            )
+                    )
+            }
+    )
+    DeviceStatsResponse getDeviceStats();
 }
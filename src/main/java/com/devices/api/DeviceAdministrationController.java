@@ -1,12 +1,26 @@
 package com.devices.api;
 
 import com.devices.api.dto.*;
+import com.devices.domain.CountMode;
+import com.devices.domain.DeviceCount;
+import com.devices.service.DeviceCountService;
+import com.devices.service.DeviceExportService;
+import com.devices.service.DeviceHistoryService;
+import com.devices.service.DeviceImportService;
+import com.devices.service.DeviceInventory;
 import com.devices.service.DeviceService;
+import com.devices.service.IdempotentCreateService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,15 +31,42 @@ public class DeviceAdministrationController implements DeviceAdministrationAPI {
 
     private final DeviceService deviceService;
 
-    public DeviceAdministrationController(DeviceService deviceService) {
+    private final DeviceImportService deviceImportService;
+
+    private final DeviceExportService deviceExportService;
+
+    private final DeviceHistoryService deviceHistoryService;
+
+    private final IdempotentCreateService idempotentCreateService;
+
+    private final DeviceCountService deviceCountService;
+
+    private final DeviceInventory deviceInventory;
+
+    public DeviceAdministrationController(DeviceService deviceService,
+                                          DeviceImportService deviceImportService,
+                                          DeviceExportService deviceExportService,
+                                          DeviceHistoryService deviceHistoryService,
+                                          IdempotentCreateService idempotentCreateService,
+                                          DeviceCountService deviceCountService,
+                                          DeviceInventory deviceInventory) {
         this.deviceService = deviceService;
+        this.deviceImportService = deviceImportService;
+        this.deviceExportService = deviceExportService;
+        this.deviceHistoryService = deviceHistoryService;
+        this.idempotentCreateService = idempotentCreateService;
+        this.deviceCountService = deviceCountService;
+        this.deviceInventory = deviceInventory;
     }
 
     @Override
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public DeviceResponse createDevice(@Valid @RequestBody CreateDeviceRequest request) {
-        return deviceService.create(request);
+    public DeviceResponse createDevice(
+            @Valid @RequestBody CreateDeviceRequest request,
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey
+    ) {
+        return idempotentCreateService.create(request, idempotencyKey);
     }
 
     @Override
@@ -36,8 +77,26 @@ public class DeviceAdministrationController implements DeviceAdministrationAPI {
 
     @Override
     @GetMapping
-    public List<DeviceResponse> getAll(@Valid DeviceFilterRequest filter) {
-        return deviceService.findDevices(filter);
+    public List<DeviceResponse> getAll(
+            @Valid DeviceFilterRequest filter,
+            @RequestParam(defaultValue = "AUTO") CountMode count,
+            HttpServletResponse response
+    ) {
+        List<DeviceResponse> devices = deviceService.findDevices(filter);
+        setTotalCount(response, filter.isPaged()
+                ? deviceCountService.count(filter, count)
+                : new DeviceCount(devices.size(), true));
+        return devices;
+    }
+
+    @Override
+    @RequestMapping(method = RequestMethod.HEAD)
+    public void countDevices(
+            @Valid DeviceFilterRequest filter,
+            @RequestParam(defaultValue = "AUTO") CountMode count,
+            HttpServletResponse response
+    ) {
+        setTotalCount(response, deviceCountService.count(filter, count));
     }
 
     @Override
@@ -65,4 +124,52 @@ public class DeviceAdministrationController implements DeviceAdministrationAPI {
         return deviceService.updatePartial(id, patch);
 
     }
+
+    @Override
+    @PostMapping("/claim")
+    public List<DeviceResponse> claimDevices(@Valid @RequestBody ClaimDevicesRequest request) {
+        return deviceService.claimAvailable(request);
+    }
+
+    @Override
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public DeviceImportResponse importDevices(InputStream csv) {
+        return deviceImportService.importCsv(csv);
+    }
+
+    @Override
+    @GetMapping("/export")
+    public void exportDevices(@Valid DeviceFilterRequest filter, HttpServletResponse response) throws IOException {
+        response.setContentType("text/csv;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"devices.csv\"");
+        deviceExportService.exportCsv(filter, response.getOutputStream());
+    }
+
+    @Override
+    @GetMapping("/{id}/history")
+    public DeviceHistoryResponse getDeviceHistory(
+            @PathVariable UUID id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") @Min(1) @Max(500) int limit
+    ) {
+        return deviceHistoryService.findHistory(id, cursor, limit);
+    }
+
+    @Override
+    @PostMapping("/lookup")
+    @ReadOnlyEndpoint
+    public DeviceLookupResponse lookupDevices(@Valid @RequestBody DeviceLookupRequest request) {
+        return deviceService.lookup(request);
+    }
+
+    @Override
+    @GetMapping("/stats")
+    public DeviceStatsResponse getDeviceStats() {
+        return deviceInventory.stats();
+    }
+
+    private static void setTotalCount(HttpServletResponse response, DeviceCount count) {
+        response.setHeader(TOTAL_COUNT_HEADER, Long.toString(count.value()));
+        response.setHeader(TOTAL_COUNT_ACCURACY_HEADER, count.exact() ? "exact" : "estimated");
+    }
 }
@@ -3,6 +3,7 @@ package com.devices.api;
 import com.devices.api.dto.CreateDeviceRequest;
 import com.devices.api.dto.DeviceResponse;
 import com.devices.api.dto.PatchDeviceRequest;
+import com.devices.domain.ArchivedDevice;
 import com.devices.domain.DeviceStatus;
 import com.devices.domain.Device;
 import org.mapstruct.*;
@@ -13,9 +14,9 @@ import java.util.UUID;
 @Mapper(componentModel = "spring", imports = {UUID.class, DeviceStatus.class})
 public interface DeviceAdministrationMapper {
 
-    default Device toEntity(CreateDeviceRequest request) {
+    default Device toEntity(UUID id, CreateDeviceRequest request) {
         return new Device(
-                UUID.randomUUID(),
+                id,
                 request.name(),
                 request.brand(),
                 DeviceStatus.AVAILABLE
@@ -25,6 +26,9 @@ public interface DeviceAdministrationMapper {
     @Mapping(source = "createdAt", target = "creationTime")
     DeviceResponse toResponse(Device device);
 
+    @Mapping(source = "createdAt", target = "creationTime")
+    DeviceResponse toResponse(ArchivedDevice device);
+
     List<DeviceResponse> toResponseList(List<Device> devices);
 
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
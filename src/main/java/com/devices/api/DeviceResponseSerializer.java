@@ -0,0 +1,180 @@
+package com.devices.api;
+
+import com.devices.api.dto.DeviceResponse;
+import com.devices.domain.DeviceStatus;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.SerializableString;
+import tools.jackson.core.io.SerializedString;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ser.std.StdSerializer;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Writes {@link DeviceResponse} without bean introspection: field names and state values are pre-encoded,
+ * and UUIDs and instants are formatted into a small char buffer instead of intermediate strings. The output
+ * is identical to Jackson's default (ISO-8601 instants as produced by {@link Instant#toString()}).
+ */
+public class DeviceResponseSerializer extends StdSerializer<DeviceResponse> {
+
+    private static final SerializableString ID = new SerializedString("id");
+
+    private static final SerializableString NAME = new SerializedString("name");
+
+    private static final SerializableString BRAND = new SerializedString("brand");
+
+    private static final SerializableString STATE = new SerializedString("state");
+
+    private static final SerializableString CREATION_TIME = new SerializedString("creationTime");
+
+    private static final SerializableString[] STATES = stateNames();
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final int UUID_LENGTH = 36;
+
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    /**
+     * Largest epoch second that still has a four-digit year (9999-12-31T23:59:59Z).
+     */
+    private static final long MAX_FOUR_DIGIT_YEAR_SECOND = 253_402_300_799L;
+
+    /**
+     * Smallest epoch second with a non-negative year (0000-01-01T00:00:00Z).
+     */
+    private static final long MIN_FOUR_DIGIT_YEAR_SECOND = -62_167_219_200L;
+
+    public DeviceResponseSerializer() {
+        super(DeviceResponse.class);
+    }
+
+    @Override
+    public void serialize(DeviceResponse device, JsonGenerator gen, SerializationContext context) {
+        char[] buffer = new char[UUID_LENGTH];
+        gen.writeStartObject(device);
+
+        gen.writeName(ID);
+        if (device.id() == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(buffer, 0, formatUuid(device.id(), buffer));
+        }
+
+        gen.writeName(NAME);
+        gen.writeString(device.name());
+
+        gen.writeName(BRAND);
+        gen.writeString(device.brand());
+
+        gen.writeName(STATE);
+        if (device.state() == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(STATES[device.state().ordinal()]);
+        }
+
+        gen.writeName(CREATION_TIME);
+        Instant creationTime = device.creationTime();
+        if (creationTime == null) {
+            gen.writeNull();
+        } else if (creationTime.getEpochSecond() < MIN_FOUR_DIGIT_YEAR_SECOND
+                || creationTime.getEpochSecond() > MAX_FOUR_DIGIT_YEAR_SECOND) {
+            gen.writeString(creationTime.toString());
+        } else {
+            gen.writeString(buffer, 0, formatInstant(creationTime, buffer));
+        }
+
+        gen.writeEndObject();
+    }
+
+    static int formatUuid(UUID uuid, char[] buffer) {
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+        writeHex(msb >>> 32, buffer, 0, 8);
+        buffer[8] = '-';
+        writeHex(msb >>> 16, buffer, 9, 4);
+        buffer[13] = '-';
+        writeHex(msb, buffer, 14, 4);
+        buffer[18] = '-';
+        writeHex(lsb >>> 48, buffer, 19, 4);
+        buffer[23] = '-';
+        writeHex(lsb, buffer, 24, 12);
+        return UUID_LENGTH;
+    }
+
+    /**
+     * Formats like {@link java.time.format.DateTimeFormatter#ISO_INSTANT}: {@code yyyy-MM-ddTHH:mm:ss} followed
+     * by 0, 3, 6 or 9 fraction digits and {@code Z}. Only valid for years 0000-9999.
+     */
+    static int formatInstant(Instant instant, char[] buffer) {
+        long epochSecond = instant.getEpochSecond();
+        long days = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+        int secondOfDay = (int) Math.floorMod(epochSecond, SECONDS_PER_DAY);
+
+        // Civil date from days since 1970-01-01 (H. Hinnant, "chrono-Compatible Low-Level Date Algorithms")
+        long z = days + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        int dayOfEra = (int) (z - era * 146_097);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        int year = (int) (yearOfEra + era * 400) + (month <= 2 ? 1 : 0);
+
+        writeDigits(year, buffer, 0, 4);
+        buffer[4] = '-';
+        writeDigits(month, buffer, 5, 2);
+        buffer[7] = '-';
+        writeDigits(day, buffer, 8, 2);
+        buffer[10] = 'T';
+        writeDigits(secondOfDay / 3600, buffer, 11, 2);
+        buffer[13] = ':';
+        writeDigits(secondOfDay / 60 % 60, buffer, 14, 2);
+        buffer[16] = ':';
+        writeDigits(secondOfDay % 60, buffer, 17, 2);
+        int length = 19;
+
+        int nanos = instant.getNano();
+        if (nanos != 0) {
+            buffer[length++] = '.';
+            if (nanos % 1_000_000 == 0) {
+                writeDigits(nanos / 1_000_000, buffer, length, 3);
+                length += 3;
+            } else if (nanos % 1_000 == 0) {
+                writeDigits(nanos / 1_000, buffer, length, 6);
+                length += 6;
+            } else {
+                writeDigits(nanos, buffer, length, 9);
+                length += 9;
+            }
+        }
+        buffer[length++] = 'Z';
+        return length;
+    }
+
+    private static void writeHex(long value, char[] buffer, int offset, int digits) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            buffer[i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+
+    private static void writeDigits(int value, char[] buffer, int offset, int digits) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static SerializableString[] stateNames() {
+        DeviceStatus[] states = DeviceStatus.values();
+        SerializableString[] names = new SerializableString[states.length];
+        for (DeviceStatus state : states) {
+            names[state.ordinal()] = new SerializedString(state.name());
+        }
+        return names;
+    }
+}
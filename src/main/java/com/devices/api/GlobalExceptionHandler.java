@@ -1,11 +1,14 @@
 package com.devices.api;
 
+import com.devices.config.ConnectionPoolProperties;
 import com.devices.domain.DeviceFieldLockedException;
 import com.devices.domain.DeviceInUseException;
 import com.devices.domain.DeviceNotFoundException;
+import com.devices.domain.IdempotencyKeyReusedException;
 import com.devices.domain.ImmutableFieldViolationException;
 import com.devices.domain.InvalidDeviceStateException;
 import com.devices.domain.VersionConflictException;
+import jakarta.persistence.PersistenceException;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import org.jspecify.annotations.NonNull;
@@ -13,6 +16,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
 import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -20,6 +24,7 @@ import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.transaction.TransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -30,6 +35,8 @@ import org.springframework.web.method.annotation.MethodArgumentTypeMismatchExcep
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
 import java.net.URI;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
 import java.util.Map;
 
 @RestControllerAdvice
@@ -56,11 +63,38 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 
     private static final URI DEVICE_IN_USE_TYPE = URI.create("https://api.example.com/errors/device-in-use");
 
+    private static final URI OVERLOADED_TYPE = URI.create("https://api.example.com/errors/service-overloaded");
+
     private static final String PARAMETER_KEY = "parameter";
 
     private static final String INVALID_PARAMETER_TITLE = "Invalid Parameter";
 
-    private static final String ERROR_CODE = "errorCode";
+    private static final ProblemTemplate DEVICE_NOT_FOUND =
+            ProblemTemplate.of(HttpStatus.NOT_FOUND, "Device Not Found", NOT_FOUND_TYPE);
+
+    private static final ProblemTemplate INVALID_DEVICE_STATE =
+            ProblemTemplate.of(HttpStatus.BAD_REQUEST, "Invalid Device State", INVALID_STATE_TYPE);
+
+    private static final ProblemTemplate DEVICE_IN_USE =
+            ProblemTemplate.of(HttpStatus.CONFLICT, "Device in use", DEVICE_IN_USE_TYPE);
+
+    private static final ProblemTemplate IMMUTABLE_FIELD = ProblemTemplate.of(
+            HttpStatus.UNPROCESSABLE_CONTENT, "Unprocessable Entity", UNPROCESSABLE_TYPE, "IMMUTABLE_FIELD_VIOLATION");
+
+    private static final ProblemTemplate FIELD_LOCKED = ProblemTemplate.of(
+            HttpStatus.UNPROCESSABLE_CONTENT, "Unprocessable Entity", UNPROCESSABLE_TYPE, "DEVICE_IN_USE_FIELD_LOCKED");
+
+    private static final ProblemTemplate IDEMPOTENCY_KEY_REUSED = ProblemTemplate.of(
+            HttpStatus.UNPROCESSABLE_CONTENT, "Unprocessable Entity", UNPROCESSABLE_TYPE, "IDEMPOTENCY_KEY_REUSED");
+
+    private static final ProblemTemplate VERSION_CONFLICT =
+            ProblemTemplate.of(HttpStatus.CONFLICT, "Version Conflict", CONFLICT_TYPE, "VERSION_CONFLICT");
+
+    private final Duration connectionRetryAfter;
+
+    public GlobalExceptionHandler(ConnectionPoolProperties connectionPoolProperties) {
+        this.connectionRetryAfter = connectionPoolProperties.retryAfter();
+    }
 
     @Override
     protected ResponseEntity<@NonNull Object> handleMethodArgumentNotValid(@NonNull MethodArgumentNotValidException ex,
@@ -103,41 +137,66 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 
     @ExceptionHandler(DeviceNotFoundException.class)
     ProblemDetail handleDeviceNotFound(DeviceNotFoundException ex, WebRequest request) {
-        return buildProblemDetail(HttpStatus.NOT_FOUND, ex.getMessage(), "Device Not Found", NOT_FOUND_TYPE, request);
+        return DEVICE_NOT_FOUND.create(ex.getMessage(), instance(request));
     }
 
     @ExceptionHandler(InvalidDeviceStateException.class)
     ProblemDetail handleInvalidDeviceState(InvalidDeviceStateException ex, WebRequest request) {
-        return buildProblemDetail(HttpStatus.BAD_REQUEST, ex.getMessage(), "Invalid Device State", INVALID_STATE_TYPE, request);
+        return INVALID_DEVICE_STATE.create(ex.getMessage(), instance(request));
     }
 
     @ExceptionHandler(DeviceInUseException.class)
     ProblemDetail handleDeviceInUse(DeviceInUseException ex, WebRequest request) {
-        return buildProblemDetail(HttpStatus.CONFLICT, ex.getMessage(), "Device in use", DEVICE_IN_USE_TYPE, request);
+        return DEVICE_IN_USE.create(ex.getMessage(), instance(request));
     }
 
     @ExceptionHandler(ImmutableFieldViolationException.class)
     ProblemDetail handleImmutableField(ImmutableFieldViolationException ex, WebRequest request) {
-        ProblemDetail problem = buildProblemDetail(HttpStatus.UNPROCESSABLE_CONTENT, ex.getMessage(), "Unprocessable Entity", UNPROCESSABLE_TYPE, request);
-        problem.setProperty(ERROR_CODE, "IMMUTABLE_FIELD_VIOLATION");
+        ProblemDetail problem = IMMUTABLE_FIELD.create(ex.getMessage(), instance(request));
         problem.setProperty("fieldName", ex.getFieldName());
         return problem;
     }
 
     @ExceptionHandler(DeviceFieldLockedException.class)
     ProblemDetail handleFieldLocked(DeviceFieldLockedException ex, WebRequest request) {
-        ProblemDetail problem = buildProblemDetail(HttpStatus.UNPROCESSABLE_CONTENT, ex.getMessage(), "Unprocessable Entity", UNPROCESSABLE_TYPE, request);
-        problem.setProperty("errorCode", "DEVICE_IN_USE_FIELD_LOCKED");
+        ProblemDetail problem = FIELD_LOCKED.create(ex.getMessage(), instance(request));
         problem.setProperty("fieldName", ex.getFieldName());
         problem.setProperty("currentState", ex.getCurrentState());
         return problem;
     }
 
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    ProblemDetail handleIdempotencyKeyReused(IdempotencyKeyReusedException ex, WebRequest request) {
+        return IDEMPOTENCY_KEY_REUSED.create(ex.getMessage(), instance(request));
+    }
+
     @ExceptionHandler({VersionConflictException.class, OptimisticLockingFailureException.class})
     ProblemDetail handleVersionConflict(RuntimeException ex, WebRequest request) {
-        ProblemDetail problem = buildProblemDetail(HttpStatus.CONFLICT, ex.getMessage(), "Version Conflict", CONFLICT_TYPE, request);
-        problem.setProperty("errorCode", "VERSION_CONFLICT");
-        return problem;
+        return VERSION_CONFLICT.create(ex.getMessage(), instance(request));
+    }
+
+    @ExceptionHandler(ServiceOverloadedException.class)
+    ResponseEntity<ProblemDetail> handleServiceOverloaded(ServiceOverloadedException ex, WebRequest request) {
+        ProblemDetail problem = buildProblemDetail(ex.getStatus(), ex.getMessage(), "Service Overloaded", OVERLOADED_TYPE, request);
+        long retryAfterSeconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(ex.getStatus()).
+                header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds)).
+                body(problem);
+    }
+
+    /**
+     * A connection pool that stays exhausted for its whole {@code connection-timeout} means the database is the
+     * bottleneck; callers are told to back off like when the concurrency limit sheds them.
+     */
+    @ExceptionHandler({DataAccessException.class, TransactionException.class, PersistenceException.class})
+    ResponseEntity<ProblemDetail> handleDataAccess(RuntimeException ex, WebRequest request) {
+        if (isConnectionUnavailable(ex)) {
+            return handleServiceOverloaded(new ServiceOverloadedException(
+                    "No database connection available, please retry later",
+                    HttpStatus.SERVICE_UNAVAILABLE,
+                    connectionRetryAfter), request);
+        }
+        return ResponseEntity.internalServerError().body(handleAll(ex, request));
     }
 
     @ExceptionHandler(IllegalArgumentException.class)
@@ -182,13 +241,27 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return buildProblemDetail(HttpStatus.INTERNAL_SERVER_ERROR, "An unexpected error occurred", "Internal Server Error", INTERNAL_ERROR_TYPE, request);
     }
 
+    private static boolean isConnectionUnavailable(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTransientConnectionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private ProblemDetail buildProblemDetail(HttpStatusCode status, String detail, String title, URI type, WebRequest request) {
         ProblemDetail problem = ProblemDetail.forStatusAndDetail(status, detail);
         problem.setTitle(title);
         problem.setType(type);
+        problem.setInstance(instance(request));
+        return problem;
+    }
+
+    private static URI instance(WebRequest request) {
         if (request instanceof ServletWebRequest servletWebRequest) {
-            problem.setInstance(URI.create(servletWebRequest.getRequest().getRequestURI()));
+            return URI.create(servletWebRequest.getRequest().getRequestURI());
         }
-        return problem;
+        return null;
     }
 }
@@ -0,0 +1,50 @@
+package com.devices.api;
+
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ProblemDetail;
+
+import java.net.URI;
+
+/**
+ * Pre-computed status, title, type and error code of a problem response; only the detail and the instance
+ * vary per request.
+ */
+final class ProblemTemplate {
+
+    static final String ERROR_CODE = "errorCode";
+
+    private final HttpStatusCode status;
+
+    private final String title;
+
+    private final URI type;
+
+    private final String errorCode;
+
+    private ProblemTemplate(HttpStatusCode status, String title, URI type, String errorCode) {
+        this.status = status;
+        this.title = title;
+        this.type = type;
+        this.errorCode = errorCode;
+    }
+
+    static ProblemTemplate of(HttpStatusCode status, String title, URI type) {
+        return new ProblemTemplate(status, title, type, null);
+    }
+
+    static ProblemTemplate of(HttpStatusCode status, String title, URI type, String errorCode) {
+        return new ProblemTemplate(status, title, type, errorCode);
+    }
+
+    ProblemDetail create(String detail, URI instance) {
+        ProblemDetail problem = ProblemDetail.forStatus(status);
+        problem.setTitle(title);
+        problem.setType(type);
+        problem.setDetail(detail);
+        problem.setInstance(instance);
+        if (errorCode != null) {
+            problem.setProperty(ERROR_CODE, errorCode);
+        }
+        return problem;
+    }
+}
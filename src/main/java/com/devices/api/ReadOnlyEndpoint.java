@@ -0,0 +1,17 @@
+package com.devices.api;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a handler that only reads although its HTTP method is not safe (POST used because the input does not
+ * fit a query string), so that {@link ConcurrencyLimitInterceptor} treats its requests as reads.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadOnlyEndpoint {
+}
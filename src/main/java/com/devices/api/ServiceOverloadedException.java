@@ -0,0 +1,23 @@
+package com.devices.api;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a request is shed because the service is running at its concurrency limit.
+ */
+@Getter
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    private final Duration retryAfter;
+
+    public ServiceOverloadedException(String message, HttpStatus status, Duration retryAfter) {
+        super(message);
+        this.status = status;
+        this.retryAfter = retryAfter;
+    }
+}
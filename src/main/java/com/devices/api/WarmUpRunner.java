@@ -0,0 +1,178 @@
+package com.devices.api;
+
+import com.devices.config.WarmUpProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Sends synthetic read requests to the application's own port before it takes traffic, so that the JIT has
+ * compiled the request, JPA and JSON paths, the pool serving reads has opened its connections and the caches
+ * are filled. Runners finish before Spring Boot switches readiness to ACCEPTING_TRAFFIC, so
+ * {@code /actuator/health/readiness} stays OUT_OF_SERVICE until the warm-up is done. Nothing is written, and
+ * failed requests are only counted: a warm-up never stops the application from starting.
+ */
+@Component
+@ConditionalOnProperty(prefix = "devices.warm-up", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class WarmUpRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmUpRunner.class);
+
+    private static final Pattern DEVICE_ID = Pattern.compile("\"id\"\\s*:\\s*\"([0-9a-f-]{36})\"");
+
+    /**
+     * Latencies of the first and of the last round, in milliseconds. {@code interrupted} if the application was
+     * shut down during the warm-up; the other values then cover the rounds completed until then.
+     */
+    public record Result(int rounds, long requests, long failures, long firstRoundMedian, long firstRoundMax,
+                         long lastRoundMedian, long lastRoundMax, boolean interrupted) {
+    }
+
+    private final WarmUpProperties properties;
+
+    private final Environment environment;
+
+    private final AtomicLong requests = new AtomicLong();
+
+    private final AtomicLong failures = new AtomicLong();
+
+    private volatile Result result;
+
+    public WarmUpRunner(WarmUpProperties properties, Environment environment) {
+        this.properties = properties;
+        this.environment = environment;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Integer port = environment.getProperty("local.server.port", Integer.class);
+        if (port == null) {
+            log.info("Skipping warm-up: no web server is running");
+            return;
+        }
+        String baseUrl = "http://localhost:" + port + "/api/v1/devices";
+        long started = System.nanoTime();
+        long deadline = started + properties.maxDuration().toNanos();
+        List<Long> firstRound = List.of();
+        List<Long> lastRound = List.of();
+        int rounds = 0;
+        boolean interrupted = false;
+
+        try (HttpClient client = HttpClient.newBuilder().connectTimeout(properties.requestTimeout()).build();
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            while (rounds < properties.rounds() && System.nanoTime() < deadline) {
+                List<Callable<List<Long>>> round = new ArrayList<>(properties.concurrency());
+                for (int i = 0; i < properties.concurrency(); i++) {
+                    round.add(() -> readEverything(client, baseUrl));
+                }
+                List<Long> latencies = new ArrayList<>();
+                for (Future<List<Long>> future : clients.invokeAll(round)) {
+                    try {
+                        latencies.addAll(future.get());
+                    } catch (ExecutionException e) {
+                        failures.incrementAndGet();
+                    }
+                }
+                latencies.sort(null);
+                if (rounds == 0) {
+                    firstRound = latencies;
+                }
+                lastRound = latencies;
+                rounds++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            interrupted = true;
+            log.warn("Warm-up interrupted after {} rounds", rounds);
+        }
+
+        result = new Result(rounds, requests.get(), failures.get(),
+                median(firstRound), max(firstRound), median(lastRound), max(lastRound), interrupted);
+        log.info("Warm-up finished in {} ms: {} rounds, {} requests ({} failed); "
+                        + "median/max latency {}/{} ms in the first round, {}/{} ms in the last",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), rounds, result.requests(), result.failures(),
+                result.firstRoundMedian(), result.firstRoundMax(), result.lastRoundMedian(), result.lastRoundMax());
+    }
+
+    /**
+     * {@code null} until the warm-up has run.
+     */
+    public Result getResult() {
+        return result;
+    }
+
+    /**
+     * One client's requests: a page of the list, a filtered list, a count, the stats, a device from the page
+     * and an unknown device (the error path).
+     */
+    private List<Long> readEverything(HttpClient client, String baseUrl) throws InterruptedException {
+        List<Long> latencies = new ArrayList<>();
+        String page = send(client, get(baseUrl + "?size=20"), latencies);
+        send(client, get(baseUrl + "?brand=warm-up&status=AVAILABLE"), latencies);
+        send(client, HttpRequest.newBuilder(URI.create(baseUrl + "?count=AUTO")).
+                method("HEAD", HttpRequest.BodyPublishers.noBody()).
+                timeout(properties.requestTimeout()).
+                build(), latencies);
+        send(client, get(baseUrl + "/stats"), latencies);
+        Matcher device = DEVICE_ID.matcher(page == null ? "" : page);
+        if (device.find()) {
+            send(client, get(baseUrl + "/" + device.group(1)), latencies);
+        }
+        send(client, get(baseUrl + "/" + UUID.randomUUID()), latencies);
+        return latencies;
+    }
+
+    private HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).
+                timeout(properties.requestTimeout()).
+                build();
+    }
+
+    private String send(HttpClient client, HttpRequest request, List<Long> latencies) throws InterruptedException {
+        long started = System.nanoTime();
+        requests.incrementAndGet();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            // the unknown device is expected to be a 404
+            if (response.statusCode() >= 500) {
+                failures.incrementAndGet();
+            }
+            return response.body();
+        } catch (IOException e) {
+            failures.incrementAndGet();
+            log.debug("Warm-up request {} failed", request.uri(), e);
+            return null;
+        }
+    }
+
+    private static long median(List<Long> sorted) {
+        return sorted.isEmpty() ? 0 : sorted.get(sorted.size() / 2);
+    }
+
+    private static long max(List<Long> sorted) {
+        return sorted.isEmpty() ? 0 : sorted.getLast();
+    }
+}
@@ -0,0 +1,21 @@
+package com.devices.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+@Schema(name = "ClaimDevicesRequest", description = "Atomically moves up to 'count' AVAILABLE devices to IN_USE")
+public record ClaimDevicesRequest(
+        @Schema(description = "Number of devices to claim", example = "1", minimum = "1", maximum = "100", requiredMode = Schema.RequiredMode.REQUIRED)
+        @NotNull(message = "Claim count must be provided")
+        @Min(value = 1, message = "Claim count must be at least 1")
+        @Max(value = 100, message = "Claim count must not exceed 100")
+        Integer count,
+
+        @Schema(description = "Only claim devices of this brand", example = "Nest", maxLength = 50, requiredMode = Schema.RequiredMode.NOT_REQUIRED)
+        @Size(max = 50, message = "Brand must not exceed 50 characters")
+        String brand
+) {
+}
@@ -1,6 +1,8 @@
 package com.devices.api.dto;
 
 import com.devices.domain.DeviceStatus;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Size;
 
 public record DeviceFilterRequest(
@@ -10,4 +12,34 @@ public record DeviceFilterRequest(
         @Size(max = 100, message = "Name must not exceed 100 characters")
         String name,
 
-        DeviceStatus status) { }
+        DeviceStatus status,
+
+        @Min(value = 0, message = "Page must not be negative")
+        Integer page,
+
+        @Min(value = 1, message = "Size must be at least 1")
+        @Max(value = 1000, message = "Size must not exceed 1000")
+        Integer size) {
+
+    /**
+     * Without a {@code size} every matching device is returned, in no particular order; with one, the devices
+     * are ordered by creation time and {@code page} (default 0) selects the slice.
+     */
+    public boolean isPaged() {
+        return size != null;
+    }
+
+    /**
+     * In {@code long}: {@code page} has no upper bound, so {@code page * size} can overflow an {@code int}.
+     */
+    public long offset() {
+        return page == null ? 0 : (long) page * size;
+    }
+
+    /**
+     * How many of the first devices each source has to return so that the page can be cut from their merge.
+     */
+    public long rowsThroughPage() {
+        return isPaged() ? offset() + size : 0;
+    }
+}
@@ -0,0 +1,15 @@
+package com.devices.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(name = "DeviceHistoryResponse", description = "A page of a device's state history, newest first")
+public record DeviceHistoryResponse(
+        @Schema(description = "State transitions on this page")
+        List<DeviceStateChangeResponse> changes,
+
+        @Schema(description = "Pass as 'cursor' to fetch the next page; null on the last page", example = "MTczNTczMjgwMDAwMDAwMDo0Mg")
+        String nextCursor
+) {
+}
@@ -0,0 +1,31 @@
+package com.devices.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(name = "DeviceImportResponse", description = "Outcome of a CSV import")
+public record DeviceImportResponse(
+        @Schema(description = "Number of devices inserted", example = "999998")
+        long imported,
+
+        @Schema(description = "Number of rows rejected by validation", example = "2")
+        long rejected,
+
+        @Schema(description = "Rejected rows with their validation errors, capped to keep the response small")
+        List<RejectedRow> rejectedRows,
+
+        @Schema(description = "Whether more rows were rejected than are listed in rejectedRows")
+        boolean rejectedRowsTruncated
+) {
+
+    @Schema(name = "RejectedRow", description = "A CSV row that was not imported")
+    public record RejectedRow(
+            @Schema(description = "Line on which the row starts (1-based)", example = "42")
+            long line,
+
+            @Schema(description = "Validation errors for the row", example = "[\"Device name must not be blank\"]")
+            List<String> errors
+    ) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.devices.api.dto;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+import java.util.UUID;
+
+@Schema(name = "DeviceLookupRequest", description = "Ids of the devices to fetch")
+public record DeviceLookupRequest(
+        @ArraySchema(
+                schema = @Schema(description = "Device id", example = "550e8400-e29b-41d4-a716-446655440000"),
+                arraySchema = @Schema(description = "Device ids; duplicates are ignored, at most devices.lookup.max-ids entries")
+        )
+        @NotEmpty(message = "At least one id must be provided")
+        List<@NotNull(message = "Ids must not be null") UUID> ids
+) {
+}
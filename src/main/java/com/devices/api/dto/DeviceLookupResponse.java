@@ -0,0 +1,16 @@
+package com.devices.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.UUID;
+
+@Schema(name = "DeviceLookupResponse", description = "Devices found for a lookup, in request order, and the ids that do not exist")
+public record DeviceLookupResponse(
+        @Schema(description = "Devices found, in the order their ids were requested")
+        List<DeviceResponse> devices,
+
+        @Schema(description = "Requested ids without a device")
+        List<UUID> missingIds
+) {
+}
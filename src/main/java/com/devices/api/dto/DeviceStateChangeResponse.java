@@ -0,0 +1,19 @@
+package com.devices.api.dto;
+
+import com.devices.domain.DeviceStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+@Schema(name = "DeviceStateChangeResponse", description = "A state transition of a device")
+public record DeviceStateChangeResponse(
+        @Schema(description = "State before the change", example = "AVAILABLE")
+        DeviceStatus fromState,
+
+        @Schema(description = "State after the change; null when the device was deleted", example = "IN_USE")
+        DeviceStatus toState,
+
+        @Schema(description = "ISO-8601 timestamp of the change", example = "2025-01-01T12:00:00Z")
+        Instant changedAt
+) {
+}
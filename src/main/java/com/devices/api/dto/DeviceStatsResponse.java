@@ -0,0 +1,33 @@
+package com.devices.api.dto;
+
+import com.devices.domain.DeviceStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.Map;
+
+@Schema(name = "DeviceStatsResponse", description = "Number of devices per brand and state")
+public record DeviceStatsResponse(
+        @Schema(description = "Number of devices", example = "1250")
+        long total,
+
+        @Schema(description = "Number of devices per state, all brands")
+        Map<DeviceStatus, Long> byState,
+
+        @Schema(description = "Per-brand breakdown, ordered by brand")
+        List<BrandStats> brands
+) {
+
+    @Schema(name = "BrandStats", description = "Number of devices of one brand per state")
+    public record BrandStats(
+            @Schema(description = "Brand", example = "Nest")
+            String brand,
+
+            @Schema(description = "Number of devices of this brand", example = "310")
+            long total,
+
+            @Schema(description = "Number of devices of this brand per state")
+            Map<DeviceStatus, Long> byState
+    ) {
+    }
+}
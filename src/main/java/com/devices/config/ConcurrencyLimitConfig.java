@@ -0,0 +1,51 @@
+package com.devices.config;
+
+import com.devices.api.AdaptiveConcurrencyLimiter;
+import com.devices.api.ConcurrencyLimitInterceptor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@ConditionalOnProperty(prefix = "devices.concurrency-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig implements WebMvcConfigurer {
+
+    private final ConcurrencyLimitProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    public ConcurrencyLimitConfig(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                properties.initialLimit(),
+                properties.minLimit(),
+                properties.maxLimit(),
+                properties.smoothing(),
+                properties.backoffRatio(),
+                properties.priority() == ConcurrencyLimitProperties.Priority.NONE ? 0 : properties.reservedRatio()
+        );
+        Gauge.builder("devices.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit).
+                description("Current adaptive concurrency limit for the devices API").
+                register(meterRegistry);
+        Gauge.builder("devices.concurrency.in_flight", limiter, AdaptiveConcurrencyLimiter::getInFlight).
+                description("Requests currently admitted by the concurrency limiter").
+                register(meterRegistry);
+        return limiter;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ConcurrencyLimitInterceptor(adaptiveConcurrencyLimiter(), properties, meterRegistry)).
+                addPathPatterns("/api/**").
+                excludePathPatterns("/api/v1/devices/import", "/api/v1/devices/export");
+    }
+}
@@ -0,0 +1,31 @@
+package com.devices.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "devices.concurrency-limit")
+public record ConcurrencyLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("20") int initialLimit,
+        @DefaultValue("4") int minLimit,
+        @DefaultValue("200") int maxLimit,
+        @DefaultValue("0.2") double smoothing,
+        @DefaultValue("0.9") double backoffRatio,
+        @DefaultValue("NONE") Priority priority,
+        @DefaultValue("0.2") double reservedRatio,
+        @DefaultValue("1s") Duration retryAfter,
+        @DefaultValue("SERVICE_UNAVAILABLE") HttpStatus rejectionStatus
+) {
+
+    /**
+     * Which kind of request keeps the reserved share of the limit when the service is saturated.
+     */
+    public enum Priority {
+        NONE,
+        READS,
+        WRITES
+    }
+}
@@ -0,0 +1,72 @@
+package com.devices.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Splits the auto-configured Hikari pool into a write pool (the original, named {@code devices-write}) and a
+ * read pool ({@code devices-read}) with the same connection settings, so long list scans cannot starve
+ * creates and updates. Both pools publish the {@code hikaricp.connections.*} metrics, tagged by pool.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "devices.connection-pool", name = "read-enabled", havingValue = "true", matchIfMissing = true)
+public class ConnectionPoolConfig {
+
+    static final String WRITE_POOL = "devices-write";
+
+    static final String READ_POOL = "devices-read";
+
+    @Bean
+    public static BeanPostProcessor readWriteDataSourcePostProcessor(ObjectProvider<ConnectionPoolProperties> properties,
+                                                                     ObjectProvider<MeterRegistry> meterRegistry) {
+        return new OrderedPostProcessor(properties, meterRegistry);
+    }
+
+    /**
+     * Runs before other DataSource wrappers (such as the SQL profiler), which then wrap the router as a whole.
+     */
+    private record OrderedPostProcessor(ObjectProvider<ConnectionPoolProperties> properties,
+                                        ObjectProvider<MeterRegistry> meterRegistry) implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof HikariDataSource writePool)) {
+                return bean;
+            }
+            ConnectionPoolProperties settings = properties.getObject();
+            HikariDataSource readPool = new HikariDataSource();
+            writePool.copyStateTo(readPool);
+            writePool.setPoolName(WRITE_POOL);
+            readPool.setPoolName(READ_POOL);
+            readPool.setReadOnly(true);
+            readPool.setMaximumPoolSize(settings.readMaximumPoolSize());
+            readPool.setMinimumIdle(settings.readMinimumIdle());
+            readPool.setConnectionTimeout(settings.readConnectionTimeout().toMillis());
+
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            if (registry != null) {
+                trackMetrics(writePool, registry);
+                trackMetrics(readPool, registry);
+            }
+            return new ReadWriteDataSource(writePool, readPool);
+        }
+
+        private static void trackMetrics(HikariDataSource pool, MeterRegistry registry) {
+            if (pool.getMetricRegistry() == null && pool.getMetricsTrackerFactory() == null) {
+                pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            }
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
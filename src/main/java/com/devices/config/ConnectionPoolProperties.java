@@ -0,0 +1,21 @@
+package com.devices.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * The write pool is the one configured under {@code spring.datasource.hikari}; read-only transactions get a
+ * second pool of their own, sized and timed out independently. A request that cannot get a connection in time
+ * is answered with 503 and {@code retryAfter}.
+ */
+@ConfigurationProperties(prefix = "devices.connection-pool")
+public record ConnectionPoolProperties(
+        @DefaultValue("true") boolean readEnabled,
+        @DefaultValue("10") int readMaximumPoolSize,
+        @DefaultValue("2") int readMinimumIdle,
+        @DefaultValue("1s") Duration readConnectionTimeout,
+        @DefaultValue("1s") Duration retryAfter
+) {
+}
@@ -0,0 +1,18 @@
+package com.devices.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "devices.cache")
+public record DeviceCacheProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("10000") int maxDevices,
+        @DefaultValue("1000") int maxFilters,
+        @DefaultValue("10000") int maxFilterDevices,
+        @DefaultValue("30s") Duration ttl,
+        @DefaultValue("device_changes") String channel,
+        @DefaultValue("1s") Duration reconnectDelay
+) {
+}
@@ -0,0 +1,11 @@
+package com.devices.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "devices.import")
+public record DeviceImportProperties(
+        @DefaultValue("1000") int maxReportedRejections,
+        @DefaultValue("65536") int copyChunkSize
+) {
+}
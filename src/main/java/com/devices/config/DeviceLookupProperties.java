@@ -0,0 +1,10 @@
+package com.devices.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "devices.lookup")
+public record DeviceLookupProperties(
+        @DefaultValue("1000") int maxIds
+) {
+}
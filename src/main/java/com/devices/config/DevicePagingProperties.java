@@ -0,0 +1,10 @@
+package com.devices.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "devices.paging")
+public record DevicePagingProperties(
+        @DefaultValue("10000") int maxMergedRows
+) {
+}
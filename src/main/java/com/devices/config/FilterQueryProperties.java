@@ -0,0 +1,14 @@
+package com.devices.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * With {@code precompiled=false} filtered lists fall back to building a Criteria query from
+ * {@code DeviceSpecification} on every call; only meant as a benchmark baseline.
+ */
+@ConfigurationProperties(prefix = "devices.filter-queries")
+public record FilterQueryProperties(
+        @DefaultValue("true") boolean precompiled
+) {
+}
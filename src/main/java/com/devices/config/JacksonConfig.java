@@ -0,0 +1,23 @@
+package com.devices.config;
+
+import com.devices.api.DeviceResponseSerializer;
+import com.devices.api.dto.DeviceResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tools.jackson.databind.JacksonModule;
+import tools.jackson.databind.module.SimpleModule;
+
+@Configuration(proxyBeanMethods = false)
+public class JacksonConfig {
+
+    /**
+     * Picked up by the auto-configured JsonMapper and therefore by the MVC message converters.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "devices.json", name = "device-response-serializer", havingValue = "true", matchIfMissing = true)
+    public JacksonModule deviceResponseModule() {
+        return new SimpleModule("device-response").
+                addSerializer(DeviceResponse.class, new DeviceResponseSerializer());
+    }
+}
@@ -0,0 +1,86 @@
+package com.devices.config;
+
+import com.devices.api.DeviceAdministrationAPI;
+import com.devices.api.dto.ClaimDevicesRequest;
+import com.devices.api.dto.CreateDeviceRequest;
+import com.devices.api.dto.DeviceFilterRequest;
+import com.devices.api.dto.DeviceHistoryResponse;
+import com.devices.api.dto.DeviceImportResponse;
+import com.devices.api.dto.DeviceLookupRequest;
+import com.devices.api.dto.DeviceLookupResponse;
+import com.devices.api.dto.DeviceResponse;
+import com.devices.api.dto.DeviceStateChangeResponse;
+import com.devices.api.dto.DeviceStatsResponse;
+import com.devices.api.dto.PatchDeviceRequest;
+import com.devices.api.dto.PutDeviceRequest;
+import com.devices.domain.BrandStateCount;
+import com.devices.domain.Device;
+import com.devices.domain.DeviceStatus;
+import org.jspecify.annotations.Nullable;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.List;
+
+/**
+ * Reachability metadata for the native image that Spring AOT cannot infer from the bean definitions:
+ * the MapStruct implementation, the entity as Hibernate sees it, the DTOs springdoc introspects and the
+ * Flyway migration scripts.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeImageHints.Registrar.class)
+public class NativeImageHints {
+
+    static class Registrar implements RuntimeHintsRegistrar {
+
+        private static final List<Class<?>> API_TYPES = List.of(
+                DeviceAdministrationAPI.class,
+                CreateDeviceRequest.class,
+                PutDeviceRequest.class,
+                PatchDeviceRequest.class,
+                DeviceFilterRequest.class,
+                ClaimDevicesRequest.class,
+                DeviceImportResponse.class,
+                DeviceImportResponse.RejectedRow.class,
+                DeviceHistoryResponse.class,
+                DeviceLookupRequest.class,
+                DeviceLookupResponse.class,
+                DeviceStateChangeResponse.class,
+                DeviceStatsResponse.class,
+                DeviceStatsResponse.BrandStats.class,
+                DeviceResponse.class
+        );
+
+        @Override
+        public void registerHints(RuntimeHints hints, @Nullable ClassLoader classLoader) {
+            hints.reflection().registerType(
+                    TypeReference.of("com.devices.api.DeviceAdministrationMapperImpl"),
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS
+            );
+            hints.reflection().registerType(Device.class,
+                    MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_DECLARED_METHODS
+            );
+            hints.reflection().registerType(BrandStateCount.class,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS
+            );
+            hints.reflection().registerType(DeviceStatus.class,
+                    MemberCategory.INVOKE_PUBLIC_METHODS,
+                    MemberCategory.DECLARED_FIELDS
+            );
+            API_TYPES.forEach(type -> hints.reflection().registerType(type,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS,
+                    MemberCategory.DECLARED_FIELDS
+            ));
+            hints.resources().registerPattern("db/migration/*");
+            hints.resources().registerPattern("META-INF/resources/webjars/swagger-ui/**");
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.devices.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of {@link com.devices.migration.OnlineSchemaChange}. DDL that needs an exclusive lock waits at most
+ * {@code lockTimeout} for it, so queued writes are never stuck behind it for longer, and is retried up to
+ * {@code lockAttempts} times. Backfills update {@code batchSize} rows per transaction.
+ */
+@ConfigurationProperties(prefix = "devices.migration")
+public record OnlineMigrationProperties(
+        @DefaultValue("5000") int batchSize,
+        @DefaultValue("20ms") Duration batchPause,
+        @DefaultValue("2s") Duration lockTimeout,
+        @DefaultValue("10") int lockAttempts,
+        @DefaultValue("1s") Duration lockRetryPause,
+        @DefaultValue("10s") Duration progressInterval
+) {
+}
@@ -0,0 +1,15 @@
+package com.devices.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "devices.patch-retry")
+public record PatchRetryProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("5") int maxAttempts,
+        @DefaultValue("5ms") Duration initialBackoff,
+        @DefaultValue("100ms") Duration maxBackoff
+) {
+}
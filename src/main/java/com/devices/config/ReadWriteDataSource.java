@@ -0,0 +1,44 @@
+package com.devices.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import java.sql.Connection;
+
+/**
+ * Hands out connections of the read pool to read-only transactions and of the write pool to everything else.
+ * The physical connection is only fetched on the first statement, once the transaction manager has marked the
+ * connection read-only (or not), so the choice follows {@code @Transactional(readOnly = true)} and
+ * {@code TransactionTemplate#setReadOnly}.
+ */
+public class ReadWriteDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+    private final HikariDataSource writePool;
+
+    private final HikariDataSource readPool;
+
+    public ReadWriteDataSource(HikariDataSource writePool, HikariDataSource readPool) {
+        this.writePool = writePool;
+        this.readPool = readPool;
+        setTargetDataSource(writePool);
+        setReadOnlyDataSource(readPool);
+        // known up front, so no connection is needed to find them out
+        setDefaultAutoCommit(writePool.isAutoCommit());
+        setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        afterPropertiesSet();
+    }
+
+    public HikariDataSource getWritePool() {
+        return writePool;
+    }
+
+    public HikariDataSource getReadPool() {
+        return readPool;
+    }
+
+    @Override
+    public void close() {
+        readPool.close();
+        writePool.close();
+    }
+}
@@ -0,0 +1,105 @@
+package com.devices.config;
+
+import com.devices.sharding.ShardRouter;
+import com.devices.sharding.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.flyway.autoconfigure.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * With {@code devices.sharding.enabled=true} the auto-configured DataSource becomes shard 0 of a
+ * {@link ShardRoutingDataSource}, every additional shard gets a Hikari pool with the same settings, and Flyway
+ * migrates all of them. Without it only the (single-shard) {@link ShardRouter} is defined.
+ */
+@Configuration
+public class ShardingConfig {
+
+    @Bean
+    public ShardRouter shardRouter(ShardingProperties properties, DeviceCacheProperties cacheProperties) {
+        if (properties.enabled() && cacheProperties.enabled()) {
+            // the cache is kept coherent by notifications on shard 0 only
+            throw new IllegalStateException("devices.cache.enabled=false is required with devices.sharding.enabled=true");
+        }
+        return new ShardRouter(properties.shardCount(), properties.gatherTimeout());
+    }
+
+    @Bean
+    public static BeanPostProcessor shardRoutingDataSourcePostProcessor(ObjectProvider<ShardingProperties> properties) {
+        return new ShardingPostProcessor(properties);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "devices.sharding", name = "enabled", havingValue = "true")
+    public FlywayMigrationStrategy shardedFlywayMigration() {
+        return flyway -> {
+            flyway.migrate();
+            List<DataSource> shards = unwrap(flyway.getConfiguration().getDataSource()).getShards();
+            for (int shard = 1; shard < shards.size(); shard++) {
+                Flyway.configure().
+                        configuration(flyway.getConfiguration()).
+                        dataSource(shards.get(shard)).
+                        load().
+                        migrate();
+            }
+        };
+    }
+
+    private static ShardRoutingDataSource unwrap(DataSource dataSource) {
+        try {
+            return dataSource.unwrap(ShardRoutingDataSource.class);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Sharding is enabled but the DataSource is not sharded", e);
+        }
+    }
+
+    /**
+     * Runs after the read/write pool split, so shard 0 keeps both of its pools; additional shards have one.
+     */
+    private record ShardingPostProcessor(ObjectProvider<ShardingProperties> properties) implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource) || bean instanceof ShardRoutingDataSource) {
+                return bean;
+            }
+            ShardingProperties settings = properties.getObject();
+            if (!settings.enabled()) {
+                return bean;
+            }
+            HikariDataSource template;
+            try {
+                template = dataSource.unwrap(HikariDataSource.class);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Sharding needs a Hikari connection pool", e);
+            }
+            List<DataSource> shards = new ArrayList<>(settings.shardCount());
+            shards.add(dataSource);
+            for (ShardingProperties.Shard shard : settings.shards()) {
+                HikariDataSource pool = new HikariDataSource();
+                template.copyStateTo(pool);
+                pool.setPoolName("devices-shard-" + shards.size());
+                pool.setJdbcUrl(shard.url());
+                pool.setUsername(shard.username());
+                pool.setPassword(shard.password());
+                shards.add(pool);
+            }
+            return new ShardRoutingDataSource(shards);
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE + 1;
+        }
+    }
+}
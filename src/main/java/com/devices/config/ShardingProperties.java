@@ -0,0 +1,30 @@
+package com.devices.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * With {@code enabled=true} devices are spread by a hash of their id over the {@code spring.datasource} database
+ * (shard 0) and every database listed in {@code shards} (shard 1, 2, ...). The list must not be reordered or
+ * resized once it holds data: devices are not rebalanced.
+ */
+@ConfigurationProperties(prefix = "devices.sharding")
+public record ShardingProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue List<Shard> shards,
+        @DefaultValue("5s") Duration gatherTimeout
+) {
+
+    /**
+     * Connection to one additional shard; pool settings are copied from {@code spring.datasource.hikari}.
+     */
+    public record Shard(String url, String username, String password) {
+    }
+
+    public int shardCount() {
+        return enabled ? 1 + shards.size() : 1;
+    }
+}
@@ -0,0 +1,44 @@
+package com.devices.config;
+
+import com.devices.profiling.ProfilingDataSource;
+import com.devices.profiling.SqlProfileEndpoint;
+import com.devices.profiling.SqlProfiler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Only active with {@code devices.sql-profiler.enabled=true}; otherwise the DataSource is left untouched and
+ * profiling costs nothing.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "devices.sql-profiler", name = "enabled", havingValue = "true")
+public class SqlProfilerConfig {
+
+    @Bean
+    public SqlProfiler sqlProfiler(SqlProfilerProperties properties) {
+        return new SqlProfiler(properties.slowQueryThreshold(), properties.redactParameters(), properties.maxShapes());
+    }
+
+    @Bean
+    public SqlProfileEndpoint sqlProfileEndpoint(SqlProfiler sqlProfiler) {
+        return new SqlProfileEndpoint(sqlProfiler);
+    }
+
+    @Bean
+    public static BeanPostProcessor profilingDataSourcePostProcessor(ObjectProvider<SqlProfiler> sqlProfiler) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProfilingDataSource)) {
+                    return new ProfilingDataSource(dataSource, sqlProfiler.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
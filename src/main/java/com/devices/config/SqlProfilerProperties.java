@@ -0,0 +1,15 @@
+package com.devices.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "devices.sql-profiler")
+public record SqlProfilerProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("200ms") Duration slowQueryThreshold,
+        @DefaultValue("true") boolean redactParameters,
+        @DefaultValue("500") int maxShapes
+) {
+}
@@ -0,0 +1,20 @@
+package com.devices.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Devices that have been INACTIVE for longer than {@code inactiveAge} are moved to the archive table in batches
+ * of {@code batchSize}; any write to an archived device moves it back.
+ */
+@ConfigurationProperties(prefix = "devices.tiering")
+public record TieringProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("30d") Duration inactiveAge,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("50ms") Duration batchPause,
+        @DefaultValue("200") int maxBatchesPerRun
+) {
+}
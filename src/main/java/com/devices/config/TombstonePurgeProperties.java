@@ -0,0 +1,25 @@
+package com.devices.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.time.ZoneId;
+
+/**
+ * Deleted devices older than {@code minAge} are removed in batches of {@code batchSize}, but only between
+ * {@code quietStart} and {@code quietEnd} in {@code zone} (a window spanning midnight is fine; equal bounds
+ * mean any time).
+ */
+@ConfigurationProperties(prefix = "devices.purge")
+public record TombstonePurgeProperties(
+        @DefaultValue("1h") Duration minAge,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("50ms") Duration batchPause,
+        @DefaultValue("200") int maxBatchesPerRun,
+        @DefaultValue("01:00") LocalTime quietStart,
+        @DefaultValue("05:00") LocalTime quietEnd,
+        @DefaultValue("UTC") ZoneId zone
+) {
+}
@@ -0,0 +1,20 @@
+package com.devices.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Before the readiness probe reports UP, {@code concurrency} clients send up to {@code rounds} rounds of
+ * read requests to the application's own port, stopping early after {@code maxDuration}.
+ */
+@ConfigurationProperties(prefix = "devices.warm-up")
+public record WarmUpProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("200") int rounds,
+        @DefaultValue("10") int concurrency,
+        @DefaultValue("60s") Duration maxDuration,
+        @DefaultValue("5s") Duration requestTimeout
+) {
+}
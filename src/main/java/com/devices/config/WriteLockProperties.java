@@ -0,0 +1,14 @@
+package com.devices.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "devices.write-lock")
+public record WriteLockProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1024") int stripes,
+        @DefaultValue("1s") Duration maxWait
+) {
+}
@@ -0,0 +1,10 @@
+package com.devices.domain;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A device in the cold tier ({@code devices_archive}); always INACTIVE and read-only until a write restores it.
+ */
+public record ArchivedDevice(UUID id, String name, String brand, DeviceStatus state, Instant createdAt) {
+}
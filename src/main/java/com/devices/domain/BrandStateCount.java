@@ -0,0 +1,4 @@
+package com.devices.domain;
+
+public record BrandStateCount(String brand, DeviceStatus state, long count) {
+}
@@ -0,0 +1,13 @@
+package com.devices.domain;
+
+/**
+ * How {@code X-Total-Count} is computed for a filtered list.
+ */
+public enum CountMode {
+    /** {@code count(*)} over the matching rows. */
+    EXACT,
+    /** The planner's row estimate for the filter; costs one {@code EXPLAIN}, never scans the table. */
+    ESTIMATED,
+    /** Exact when the estimate is at most {@code devices.count.exact-threshold}, otherwise the estimate. */
+    AUTO
+}
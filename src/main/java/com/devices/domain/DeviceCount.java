@@ -0,0 +1,4 @@
+package com.devices.domain;
+
+public record DeviceCount(long value, boolean exact) {
+}
@@ -4,12 +4,16 @@ import lombok.Getter;
 import java.util.UUID;
 
 @Getter
-public class DeviceInUseException extends RuntimeException {
+public class DeviceInUseException extends DomainException {
 
     private final UUID deviceId;
 
     public DeviceInUseException(UUID deviceId) {
-        super("Device with id %s is in use and cannot be deleted".formatted(deviceId));
         this.deviceId = deviceId;
     }
+
+    @Override
+    protected String formatMessage() {
+        return "Device with id " + deviceId + " is in use and cannot be deleted";
+    }
 }
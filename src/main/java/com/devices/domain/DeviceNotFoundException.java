@@ -4,12 +4,16 @@ import lombok.Getter;
 import java.util.UUID;
 
 @Getter
-public class DeviceNotFoundException extends RuntimeException {
+public class DeviceNotFoundException extends DomainException {
 
     private final UUID deviceId;
 
     public DeviceNotFoundException(UUID deviceId) {
-        super("Device with id %s not found".formatted(deviceId));
         this.deviceId = deviceId;
     }
+
+    @Override
+    protected String formatMessage() {
+        return "Device with id " + deviceId + " not found";
+    }
 }
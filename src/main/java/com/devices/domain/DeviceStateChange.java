@@ -0,0 +1,17 @@
+package com.devices.domain;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One entry of a device's state history. {@code toState} is {@code null} when the device was deleted;
+ * {@code historyId} is {@code null} until the entry has been stored.
+ */
+public record DeviceStateChange(
+        Long historyId,
+        UUID deviceId,
+        DeviceStatus fromState,
+        DeviceStatus toState,
+        Instant changedAt
+) {
+}
@@ -0,0 +1,37 @@
+package com.devices.domain;
+
+/**
+ * Base class for expected, client-caused failures that are translated into 4xx responses. These are
+ * thrown on hot paths (unknown ids, optimistic-lock conflicts) and their origin is evident from the type,
+ * so they skip stack trace capture and format their message only when it is first requested.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    private String message;
+
+    protected DomainException() {
+        super(null, null, false, false);
+    }
+
+    protected DomainException(String message) {
+        super(message, null, false, false);
+        this.message = message;
+    }
+
+    @Override
+    public String getMessage() {
+        String result = message;
+        if (result == null) {
+            result = formatMessage();
+            message = result;
+        }
+        return result;
+    }
+
+    /**
+     * Builds the message on first access; subclasses created without a message must override this.
+     */
+    protected String formatMessage() {
+        return getClass().getSimpleName();
+    }
+}
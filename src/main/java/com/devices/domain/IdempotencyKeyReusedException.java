@@ -0,0 +1,18 @@
+package com.devices.domain;
+
+import lombok.Getter;
+
+@Getter
+public class IdempotencyKeyReusedException extends DomainException {
+
+    private final String idempotencyKey;
+
+    public IdempotencyKeyReusedException(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    @Override
+    protected String formatMessage() {
+        return "Idempotency key '" + idempotencyKey + "' was already used with a different request";
+    }
+}
@@ -3,12 +3,16 @@ package com.devices.domain;
 import lombok.Getter;
 
 @Getter
-public class ImmutableFieldViolationException extends RuntimeException {
+public class ImmutableFieldViolationException extends DomainException {
     
     private final String fieldName;
 
     public ImmutableFieldViolationException(String fieldName) {
-        super("Field '%s' is immutable and cannot be changed".formatted(fieldName));
         this.fieldName = fieldName;
     }
+
+    @Override
+    protected String formatMessage() {
+        return "Field '" + fieldName + "' is immutable and cannot be changed";
+    }
 }
@@ -4,7 +4,7 @@ package com.devices.domain;
  * Thrown when a provided device state is invalid for the requested operation or does not
  * conform to the allowed set of states.
  */
-public class InvalidDeviceStateException extends RuntimeException {
+public class InvalidDeviceStateException extends DomainException {
     public InvalidDeviceStateException(String message) {
         super(message);
     }
@@ -4,12 +4,16 @@ import lombok.Getter;
 import java.util.UUID;
 
 @Getter
-public class VersionConflictException extends RuntimeException {
+public class VersionConflictException extends DomainException {
 
     private final UUID deviceId;
 
     public VersionConflictException(UUID deviceId) {
-        super("Version conflict detected for device %s".formatted(deviceId));
         this.deviceId = deviceId;
     }
+
+    @Override
+    protected String formatMessage() {
+        return "Version conflict detected for device " + deviceId;
+    }
 }
@@ -0,0 +1,33 @@
+package com.devices.migration;
+
+import com.devices.config.OnlineMigrationProperties;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Base class of Java migrations made of {@link OnlineSchemaChange} steps. Flyway runs them outside a
+ * transaction, so every step commits on its own and a migration that failed halfway is re-run from its first
+ * step once repaired: write steps that can run twice ({@code ADD COLUMN IF NOT EXISTS} and the like).
+ * Subclasses are Spring components named like SQL migrations (see
+ * {@link V009__Index_device_names_for_substring_search}); Spring Boot hands {@code JavaMigration} beans to Flyway.
+ */
+public abstract class OnlineMigration extends BaseJavaMigration {
+
+    private final OnlineMigrationProperties properties;
+
+    protected OnlineMigration(OnlineMigrationProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public final void migrate(Context context) throws Exception {
+        migrate(new OnlineSchemaChange(context.getConnection(), properties));
+    }
+
+    protected abstract void migrate(OnlineSchemaChange change) throws Exception;
+}
@@ -0,0 +1,183 @@
+package com.devices.migration;
+
+import com.devices.config.OnlineMigrationProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schema changes that keep the table writable while they run, on an auto-commit connection:
+ * <ul>
+ *     <li>{@link #alter} runs DDL that needs an exclusive lock only briefly (adding a nullable column, changing a
+ *     default), giving up on the lock after {@code lockTimeout} and trying again, instead of queueing every
+ *     write behind it.</li>
+ *     <li>{@link #createIndex} builds an index with {@code CREATE INDEX CONCURRENTLY}.</li>
+ *     <li>{@link #backfill} fills a column in short batches, logging its progress.</li>
+ *     <li>{@link #addCheckConstraint} and {@link #setNotNull} check existing rows under a lock that does not
+ *     block writes.</li>
+ * </ul>
+ * Adding a column that needs a computed value is then: {@code alter} to add it nullable, {@code alter} again to
+ * give it a default for new rows (in one statement the default would also fill the existing rows), then
+ * {@code backfill} the old ones and {@code setNotNull}.
+ */
+public class OnlineSchemaChange {
+
+    private static final Logger log = LoggerFactory.getLogger(OnlineSchemaChange.class);
+
+    private static final String LOCK_NOT_AVAILABLE = "55P03";
+
+    private final Connection connection;
+
+    private final OnlineMigrationProperties properties;
+
+    public OnlineSchemaChange(Connection connection, OnlineMigrationProperties properties) throws SQLException {
+        if (!connection.getAutoCommit()) {
+            throw new IllegalStateException("Online schema changes need an auto-commit connection; "
+                    + "Java migrations using them must not run in a transaction");
+        }
+        this.connection = connection;
+        this.properties = properties;
+    }
+
+    public void alter(String ddl) throws SQLException {
+        for (int attempt = 1; ; attempt++) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET lock_timeout = " + properties.lockTimeout().toMillis());
+                statement.execute(ddl);
+                return;
+            } catch (SQLException e) {
+                if (!LOCK_NOT_AVAILABLE.equals(e.getSQLState()) || attempt >= properties.lockAttempts()) {
+                    throw e;
+                }
+                log.warn("Lock not granted within {} (attempt {} of {}): {}",
+                        properties.lockTimeout(), attempt, properties.lockAttempts(), ddl);
+                pause(properties.lockRetryPause().toMillis());
+            } finally {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("RESET lock_timeout");
+                }
+            }
+        }
+    }
+
+    /**
+     * @param definition everything after the index name, e.g. {@code ON devices (brand) WHERE deleted_at IS NULL}
+     */
+    public void createIndex(String name, String definition) throws SQLException {
+        if (isInvalidIndex(name)) {
+            log.warn("Dropping index {} left INVALID by an interrupted build", name);
+            execute("DROP INDEX CONCURRENTLY " + name);
+        }
+        long started = System.nanoTime();
+        execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + name + " " + definition);
+        log.info("Built index {} in {} ms", name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    /**
+     * Runs {@code UPDATE table SET assignments} on batches of rows matching {@code pending}, one transaction
+     * each, until none is left. Rows locked by the application are skipped and picked up by a later batch.
+     *
+     * @param pending must stop matching a row once {@code assignments} have been applied to it, and should not
+     *                match rows written by the application meanwhile (give the new column a default first)
+     * @return the number of rows updated
+     */
+    public long backfill(String table, String assignments, String pending) throws SQLException {
+        String update = """
+                UPDATE %1$s SET %2$s
+                WHERE ctid = ANY(ARRAY(SELECT ctid FROM %1$s WHERE %3$s LIMIT ? FOR UPDATE SKIP LOCKED))
+                """.formatted(table, assignments, pending);
+        String remaining = "SELECT EXISTS (SELECT 1 FROM %s WHERE %s)".formatted(table, pending);
+        long estimatedRows = Math.max(1, estimatedRows(table));
+        long updated = 0;
+        long started = System.nanoTime();
+        long lastReport = started;
+        try (PreparedStatement batch = connection.prepareStatement(update);
+             PreparedStatement check = connection.prepareStatement(remaining)) {
+            batch.setInt(1, properties.batchSize());
+            while (true) {
+                int rows = batch.executeUpdate();
+                updated += rows;
+                if (rows == 0 && !exists(check)) {
+                    break;
+                }
+                if (System.nanoTime() - lastReport >= properties.progressInterval().toNanos()) {
+                    lastReport = System.nanoTime();
+                    log.info("Backfill of {}: {} rows updated (~{}% of the table)",
+                            table, updated, Math.min(100, updated * 100 / estimatedRows));
+                }
+                pause(properties.batchPause().toMillis());
+            }
+        }
+        log.info("Backfill of {} finished: {} rows updated in {} ms",
+                table, updated, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return updated;
+    }
+
+    /**
+     * Adds the constraint {@code NOT VALID}, so only new writes are checked, then validates the existing rows
+     * while holding a lock that lets writes through.
+     */
+    public void addCheckConstraint(String table, String name, String condition) throws SQLException {
+        alter("ALTER TABLE %s ADD CONSTRAINT %s CHECK (%s) NOT VALID".formatted(table, name, condition));
+        execute("ALTER TABLE %s VALIDATE CONSTRAINT %s".formatted(table, name));
+    }
+
+    /**
+     * {@code SET NOT NULL} scans the table under an exclusive lock unless a validated {@code IS NOT NULL} check
+     * already proves it, so that check is added (and validated) first and dropped afterwards.
+     */
+    public void setNotNull(String table, String column) throws SQLException {
+        String check = "chk_%s_%s_not_null".formatted(table, column);
+        addCheckConstraint(table, check, column + " IS NOT NULL");
+        alter("ALTER TABLE %s ALTER COLUMN %s SET NOT NULL".formatted(table, column));
+        alter("ALTER TABLE %s DROP CONSTRAINT %s".formatted(table, check));
+    }
+
+    private boolean isInvalidIndex(String name) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT EXISTS (SELECT 1 FROM pg_index WHERE indexrelid = to_regclass(?) AND NOT indisvalid)")) {
+            statement.setString(1, name);
+            return exists(statement);
+        }
+    }
+
+    private long estimatedRows(String table) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT greatest(reltuples, 0)::bigint FROM pg_class WHERE oid = to_regclass(?)")) {
+            statement.setString(1, table);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() ? result.getLong(1) : 0;
+            }
+        }
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static boolean exists(PreparedStatement query) throws SQLException {
+        try (ResultSet result = query.executeQuery()) {
+            return result.next() && result.getBoolean(1);
+        }
+    }
+
+    private static void pause(long millis) throws SQLException {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted during an online schema change", e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.devices.migration;
+
+import com.devices.config.OnlineMigrationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds {@code devices.state_changed_at}, kept by a trigger on every write path (JPA, claim, import), and the
+ * {@code devices_archive} cold tier that the tiering job moves long-INACTIVE devices into. Existing rows get
+ * their creation time as the last state change, backfilled in batches: the column is added nullable, the
+ * default for new rows is set in a separate step (in one statement it would fill every row with the time of
+ * the migration), and {@code NOT NULL} is only set once a validated check proves it, so no step rewrites or
+ * scans the table under a lock that blocks writes.
+ */
+@Component
+public class V007__Create_devices_archive extends OnlineMigration {
+
+    public V007__Create_devices_archive(OnlineMigrationProperties properties) {
+        super(properties);
+    }
+
+    @Override
+    protected void migrate(OnlineSchemaChange change) throws Exception {
+        change.alter("ALTER TABLE devices ADD COLUMN IF NOT EXISTS state_changed_at TIMESTAMPTZ");
+        change.alter("ALTER TABLE devices ALTER COLUMN state_changed_at SET DEFAULT NOW()");
+        change.alter("""
+                CREATE OR REPLACE FUNCTION devices_touch_state_changed_at() RETURNS TRIGGER AS $$
+                BEGIN
+                    NEW.state_changed_at := NOW();
+                    RETURN NEW;
+                END;
+                $$ LANGUAGE plpgsql
+                """);
+        change.alter("""
+                CREATE OR REPLACE TRIGGER trg_devices_state_changed_at
+                    BEFORE UPDATE OF state ON devices
+                    FOR EACH ROW
+                    WHEN (OLD.state IS DISTINCT FROM NEW.state)
+                    EXECUTE FUNCTION devices_touch_state_changed_at()
+                """);
+        // rows whose state changes meanwhile get NOW() from the trigger and are no longer pending
+        change.backfill("devices", "state_changed_at = created_at", "state_changed_at IS NULL");
+        change.setNotNull("devices", "state_changed_at");
+
+        // Tiering job: oldest long-INACTIVE live devices first.
+        change.createIndex("idx_devices_inactive_since",
+                "ON devices (state_changed_at) WHERE state = 'INACTIVE' AND deleted_at IS NULL");
+
+        // Cold tier: devices INACTIVE for longer than devices.tiering.inactive-age. A write moves a device back.
+        change.alter("""
+                CREATE TABLE IF NOT EXISTS devices_archive (
+                    device_id        UUID PRIMARY KEY,
+                    name             VARCHAR(100) NOT NULL,
+                    brand            VARCHAR(50)  NOT NULL,
+                    state            VARCHAR(20)  NOT NULL,
+                    created_at       TIMESTAMPTZ  NOT NULL,
+                    version          BIGINT       NOT NULL,
+                    state_changed_at TIMESTAMPTZ  NOT NULL,
+                    archived_at      TIMESTAMPTZ  NOT NULL DEFAULT NOW(),
+                    CONSTRAINT chk_devices_archive_state CHECK (state = 'INACTIVE')
+                )
+                """);
+        change.createIndex("idx_devices_archive_brand", "ON devices_archive (brand)");
+    }
+}
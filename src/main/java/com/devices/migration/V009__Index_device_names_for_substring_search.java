@@ -0,0 +1,26 @@
+package com.devices.migration;
+
+import com.devices.config.OnlineMigrationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * The name filter is a case-insensitive substring match ({@code lower(name) LIKE '%...%'}), which no B-tree
+ * index can serve, so every filtered list by name scanned all live devices. A trigram GIN index on the same
+ * expression (and with the same {@code deleted_at IS NULL} predicate as the other indexes) serves it. The index
+ * is built concurrently, and an INVALID one left by an interrupted run is rebuilt when the migration is retried.
+ */
+@Component
+public class V009__Index_device_names_for_substring_search extends OnlineMigration {
+
+    public V009__Index_device_names_for_substring_search(OnlineMigrationProperties properties) {
+        super(properties);
+    }
+
+    @Override
+    protected void migrate(OnlineSchemaChange change) throws Exception {
+        // pg_trgm is a trusted extension: the database owner may create it
+        change.alter("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+        change.createIndex("idx_devices_name_trgm",
+                "ON devices USING gin (lower(name) gin_trgm_ops) WHERE deleted_at IS NULL");
+    }
+}
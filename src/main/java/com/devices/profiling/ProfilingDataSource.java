@@ -0,0 +1,214 @@
+package com.devices.profiling;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * Wraps connections so that every statement execution is timed and reported to a {@link SqlProfiler}. Only
+ * installed when profiling is enabled; {@code unwrap} still reaches the driver's own types (e.g. for COPY).
+ */
+public class ProfilingDataSource extends DelegatingDataSource {
+
+    private final SqlProfiler profiler;
+
+    public ProfilingDataSource(DataSource targetDataSource, SqlProfiler profiler) {
+        super(targetDataSource);
+        this.profiler = profiler;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static Object unwrap(Object proxy, Object target, Method method, Object[] args) throws Throwable {
+        Class<?> type = (Class<?>) args[0];
+        if ("isWrapperFor".equals(method.getName())) {
+            return type.isInstance(proxy) || (Boolean) invoke(target, method, args);
+        }
+        return type.isInstance(proxy) ? proxy : invoke(target, method, args);
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("unwrap".equals(name) || "isWrapperFor".equals(name)) {
+                return unwrap(proxy, target, method, args);
+            }
+            Object result = ProfilingDataSource.invoke(target, method, args);
+            return switch (name) {
+                case "prepareStatement" -> wrapStatement((Statement) result, PreparedStatement.class, (String) args[0]);
+                case "prepareCall" -> wrapStatement((Statement) result, CallableStatement.class, (String) args[0]);
+                case "createStatement" -> wrapStatement((Statement) result, Statement.class, null);
+                default -> result;
+            };
+        }
+
+        private Object wrapStatement(Statement statement, Class<? extends Statement> type, String sql) {
+            return Proxy.newProxyInstance(ProfilingDataSource.class.getClassLoader(), new Class<?>[]{type},
+                    new StatementHandler(statement, sql));
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+
+        private final String sql;
+
+        private Object[] parameters;
+
+        private int parameterCount;
+
+        private String batchSql;
+
+        private StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                bind(index, name.equals("setNull") ? null : args[1]);
+            } else if ("clearParameters".equals(name)) {
+                parameters = null;
+                parameterCount = 0;
+            } else if ("addBatch".equals(name) && args != null && args.length == 1) {
+                batchSql = (String) args[0];
+            } else if ("unwrap".equals(name) || "isWrapperFor".equals(name)) {
+                return unwrap(proxy, target, method, args);
+            }
+            return ProfilingDataSource.invoke(target, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            String executed = args != null && args.length > 0 && args[0] instanceof String text
+                    ? text
+                    : sql != null ? sql : batchSql;
+            if (executed == null) {
+                return ProfilingDataSource.invoke(target, method, args);
+            }
+            SqlProfiler.Shape shape = profiler.shape(executed);
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = ProfilingDataSource.invoke(target, method, args);
+            } catch (Throwable e) {
+                profiler.recordExecution(shape, System.nanoTime() - start, -1, true, executed, parameters, parameterCount);
+                throw e;
+            }
+            long elapsed = System.nanoTime() - start;
+            long rows = switch (result) {
+                case Integer count -> count;
+                case Long count -> count;
+                case int[] counts -> Arrays.stream(counts).filter(count -> count > 0).asLongStream().sum();
+                case long[] counts -> Arrays.stream(counts).filter(count -> count > 0).sum();
+                case null, default -> -1;
+            };
+            profiler.recordExecution(shape, elapsed, rows, false, executed, parameters, parameterCount);
+            if (result instanceof ResultSet resultSet) {
+                return Proxy.newProxyInstance(ProfilingDataSource.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                        new ResultSetHandler(resultSet, shape));
+            }
+            return result;
+        }
+
+        private void bind(int index, Object value) {
+            if (parameters == null) {
+                parameters = new Object[Math.max(index + 1, 8)];
+            } else if (index >= parameters.length) {
+                parameters = Arrays.copyOf(parameters, Math.max(index + 1, parameters.length * 2));
+            }
+            parameters[index] = value;
+            parameterCount = Math.max(parameterCount, index);
+        }
+    }
+
+    /**
+     * Counts fetched rows and adds them to the shape once the result set is exhausted or closed.
+     */
+    private static final class ResultSetHandler implements InvocationHandler {
+
+        private final ResultSet target;
+
+        private final SqlProfiler.Shape shape;
+
+        private long rows;
+
+        private boolean reported;
+
+        private ResultSetHandler(ResultSet target, SqlProfiler.Shape shape) {
+            this.target = target;
+            this.shape = shape;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("unwrap".equals(name) || "isWrapperFor".equals(name)) {
+                return unwrap(proxy, target, method, args);
+            }
+            Object result = ProfilingDataSource.invoke(target, method, args);
+            if ("next".equals(name)) {
+                if (Boolean.TRUE.equals(result)) {
+                    rows++;
+                } else {
+                    report();
+                }
+            } else if ("close".equals(name)) {
+                report();
+            }
+            return result;
+        }
+
+        private void report() {
+            if (!reported) {
+                reported = true;
+                shape.addRows(rows);
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.devices.profiling;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.OptionalParameter;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+/**
+ * {@code GET /actuator/sqlprofile?limit=20&order=TOTAL_TIME} lists the most expensive statement shapes;
+ * {@code DELETE /actuator/sqlprofile} resets the statistics.
+ */
+@Endpoint(id = "sqlprofile")
+public class SqlProfileEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final SqlProfiler profiler;
+
+    public SqlProfileEndpoint(SqlProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @ReadOperation
+    public List<SqlProfiler.StatementStats> top(@OptionalParameter Integer limit, @OptionalParameter SqlProfiler.Order order) {
+        return profiler.top(limit == null ? DEFAULT_LIMIT : limit, order == null ? SqlProfiler.Order.TOTAL_TIME : order);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        profiler.reset();
+    }
+}
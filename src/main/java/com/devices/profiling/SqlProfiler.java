@@ -0,0 +1,247 @@
+package com.devices.profiling;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Aggregates JDBC statement executions by shape (the SQL with literals replaced by {@code ?} and whitespace
+ * collapsed) and logs executions slower than a threshold. The number of distinct shapes is bounded; executions
+ * beyond the bound are accounted to {@link #OTHER_SHAPE}.
+ */
+public class SqlProfiler {
+
+    public static final String OTHER_SHAPE = "<other statements>";
+
+    private static final Logger slowQueryLog = LoggerFactory.getLogger("com.devices.profiling.SlowQueries");
+
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\(\\?(?: ?, ?\\?)+\\)");
+
+    private static final int MAX_SHAPE_LENGTH = 2_000;
+
+    private static final int MAX_PARAMETER_LENGTH = 64;
+
+    /**
+     * Ordering for {@link #top(int, Order)}.
+     */
+    public enum Order { TOTAL_TIME, MAX_TIME, COUNT, ROWS }
+
+    /**
+     * Point-in-time statistics of one statement shape.
+     */
+    public record StatementStats(
+            String sql,
+            long count,
+            long errors,
+            long rows,
+            double totalMillis,
+            double meanMillis,
+            double maxMillis
+    ) {
+    }
+
+    private final long slowThresholdNanos;
+
+    private final boolean redactParameters;
+
+    private final int maxShapes;
+
+    private final Map<String, Shape> shapes = new ConcurrentHashMap<>();
+
+    private final Map<String, Shape> shapesBySql = new ConcurrentHashMap<>();
+
+    public SqlProfiler(Duration slowQueryThreshold, boolean redactParameters, int maxShapes) {
+        this.slowThresholdNanos = slowQueryThreshold.toNanos();
+        this.redactParameters = redactParameters;
+        this.maxShapes = maxShapes;
+    }
+
+    /**
+     * @return the statistics holder for {@code sql}; cheap to call repeatedly for the same SQL string
+     */
+    Shape shape(String sql) {
+        Shape shape = shapesBySql.get(sql);
+        if (shape != null) {
+            return shape;
+        }
+        String normalized = normalize(sql);
+        shape = shapes.get(normalized);
+        if (shape == null) {
+            shape = shapes.size() < maxShapes
+                    ? shapes.computeIfAbsent(normalized, Shape::new)
+                    : shapes.computeIfAbsent(OTHER_SHAPE, Shape::new);
+        }
+        if (shapesBySql.size() < maxShapes * 4) {
+            shapesBySql.putIfAbsent(sql, shape);
+        }
+        return shape;
+    }
+
+    void recordExecution(Shape shape, long nanos, long rows, boolean failed,
+                         String sql, Object[] parameters, int parameterCount) {
+        shape.record(nanos, rows, failed);
+        if (nanos >= slowThresholdNanos && slowQueryLog.isWarnEnabled()) {
+            slowQueryLog.warn("Slow SQL ({} ms{}): {}{}",
+                    nanos / 1_000_000,
+                    rows >= 0 ? ", " + rows + " rows" : "",
+                    shape.sql.equals(OTHER_SHAPE) ? normalize(sql) : shape.sql,
+                    describe(parameters, parameterCount));
+        }
+    }
+
+    public List<StatementStats> top(int limit, Order order) {
+        Comparator<StatementStats> comparator = switch (order) {
+            case TOTAL_TIME -> Comparator.comparingDouble(StatementStats::totalMillis);
+            case MAX_TIME -> Comparator.comparingDouble(StatementStats::maxMillis);
+            case COUNT -> Comparator.comparingLong(StatementStats::count);
+            case ROWS -> Comparator.comparingLong(StatementStats::rows);
+        };
+        List<StatementStats> snapshot = new ArrayList<>(shapes.size());
+        for (Shape shape : shapes.values()) {
+            snapshot.add(shape.snapshot());
+        }
+        snapshot.sort(comparator.reversed());
+        return snapshot.subList(0, Math.min(limit, snapshot.size()));
+    }
+
+    public void reset() {
+        shapesBySql.clear();
+        shapes.clear();
+    }
+
+    /**
+     * @param parameters bind values indexed from 1, as set on the statement
+     */
+    private String describe(Object[] parameters, int parameterCount) {
+        if (parameters == null || parameterCount == 0) {
+            return "";
+        }
+        StringBuilder description = new StringBuilder(" [");
+        for (int i = 1; i <= parameterCount; i++) {
+            if (i > 1) {
+                description.append(", ");
+            }
+            description.append(i).append('=').append(describe(parameters[i]));
+        }
+        return description.append(']').toString();
+    }
+
+    private String describe(Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+        if (redactParameters) {
+            String type = value.getClass().getSimpleName();
+            return value instanceof CharSequence text ? type + "(" + text.length() + ")" : type;
+        }
+        String text = String.valueOf(value);
+        return text.length() > MAX_PARAMETER_LENGTH ? text.substring(0, MAX_PARAMETER_LENGTH) + "..." : text;
+    }
+
+    /**
+     * Replaces string and numeric literals with {@code ?}, collapses whitespace and placeholder lists, so that
+     * statements differing only in literal values share a shape.
+     */
+    static String normalize(String sql) {
+        StringBuilder out = new StringBuilder(Math.min(sql.length(), MAX_SHAPE_LENGTH));
+        int length = sql.length();
+        int i = 0;
+        while (i < length && out.length() < MAX_SHAPE_LENGTH) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                while (i < length && Character.isWhitespace(sql.charAt(i))) {
+                    i++;
+                }
+                if (!out.isEmpty() && i < length) {
+                    out.append(' ');
+                }
+            } else if (c == '\'') {
+                i++;
+                while (i < length) {
+                    if (sql.charAt(i) == '\'') {
+                        if (i + 1 < length && sql.charAt(i + 1) == '\'') {
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                i++;
+                out.append('?');
+            } else if (Character.isDigit(c) && !continuesIdentifier(out)) {
+                while (i < length && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                out.append('?');
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+        return PLACEHOLDER_LIST.matcher(out).replaceAll("(?, ...)");
+    }
+
+    private static boolean continuesIdentifier(StringBuilder out) {
+        if (out.isEmpty()) {
+            return false;
+        }
+        char previous = out.charAt(out.length() - 1);
+        return Character.isLetterOrDigit(previous) || previous == '_' || previous == '$';
+    }
+
+    static final class Shape {
+
+        private final String sql;
+
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder errors = new LongAdder();
+
+        private final LongAdder rows = new LongAdder();
+
+        private final LongAdder totalNanos = new LongAdder();
+
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private Shape(String sql) {
+            this.sql = sql;
+        }
+
+        void record(long nanos, long rowCount, boolean failed) {
+            count.increment();
+            totalNanos.add(nanos);
+            if (nanos > maxNanos.get()) {
+                maxNanos.accumulateAndGet(nanos, Math::max);
+            }
+            if (failed) {
+                errors.increment();
+            }
+            if (rowCount > 0) {
+                rows.add(rowCount);
+            }
+        }
+
+        void addRows(long rowCount) {
+            rows.add(rowCount);
+        }
+
+        StatementStats snapshot() {
+            long executions = count.sum();
+            long total = totalNanos.sum();
+            return new StatementStats(sql, executions, errors.sum(), rows.sum(),
+                    total / 1e6,
+                    executions == 0 ? 0 : total / 1e6 / executions,
+                    maxNanos.get() / 1e6);
+        }
+    }
+}
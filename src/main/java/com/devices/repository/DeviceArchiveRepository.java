@@ -0,0 +1,126 @@
+package com.devices.repository;
+
+import com.devices.domain.ArchivedDevice;
+import com.devices.domain.BrandStateCount;
+import com.devices.domain.DeviceStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Plain JDBC access to {@code devices_archive}, the cold tier of devices that have been INACTIVE for a long
+ * time. Rows move between the tiers with single {@code DELETE ... RETURNING} / {@code INSERT} statements, so a
+ * device is always in exactly one of the two tables.
+ */
+@Repository
+public class DeviceArchiveRepository {
+
+    private static final String COLUMNS = "device_id, name, brand, state, created_at, version, state_changed_at";
+
+    private static final String ARCHIVE_INACTIVE = """
+            WITH moved AS (
+                DELETE FROM devices
+                WHERE device_id IN (
+                    SELECT device_id
+                    FROM devices
+                    WHERE state = 'INACTIVE'
+                      AND deleted_at IS NULL
+                      AND state_changed_at < now() - make_interval(secs => ?)
+                    ORDER BY state_changed_at
+                    LIMIT ?
+                    FOR UPDATE SKIP LOCKED
+                )
+                RETURNING %1$s
+            )
+            INSERT INTO devices_archive (%1$s)
+            SELECT %1$s FROM moved
+            """.formatted(COLUMNS);
+
+    private static final String RESTORE = """
+            WITH moved AS (
+                DELETE FROM devices_archive
+                WHERE device_id = ?
+                RETURNING %1$s
+            )
+            INSERT INTO devices (%1$s)
+            SELECT %1$s FROM moved
+            """.formatted(COLUMNS);
+
+    private static final String SELECT = "SELECT device_id, name, brand, state, created_at FROM devices_archive";
+
+    private static final RowMapper<ArchivedDevice> ROW_MAPPER = (rs, rowNum) -> new ArchivedDevice(
+            rs.getObject("device_id", UUID.class),
+            rs.getString("name"),
+            rs.getString("brand"),
+            DeviceStatus.valueOf(rs.getString("state")),
+            rs.getTimestamp("created_at").toInstant());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DeviceArchiveRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Moves up to {@code limit} live devices that have been INACTIVE for more than {@code minAgeSeconds} into
+     * the archive, oldest first. Devices locked by a concurrent writer are skipped.
+     *
+     * @return the number of devices moved
+     */
+    public int archiveInactive(double minAgeSeconds, int limit) {
+        return jdbcTemplate.update(ARCHIVE_INACTIVE, minAgeSeconds, limit);
+    }
+
+    /**
+     * Moves an archived device back into {@code devices}, keeping its version and timestamps.
+     *
+     * @return whether the device was archived
+     */
+    public boolean restore(UUID id) {
+        return jdbcTemplate.update(RESTORE, id) > 0;
+    }
+
+    public Optional<ArchivedDevice> findById(UUID id) {
+        return jdbcTemplate.query(SELECT + " WHERE device_id = ?", ROW_MAPPER, id).stream().findFirst();
+    }
+
+    public List<ArchivedDevice> findAllByIds(UUID[] ids) {
+        return jdbcTemplate.query(SELECT + " WHERE device_id = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", ids)),
+                ROW_MAPPER);
+    }
+
+    /**
+     * Same brand, name and {@code limit} semantics as {@link DeviceFilterRepository}; every archived device is
+     * INACTIVE.
+     */
+    public List<ArchivedDevice> find(String brand, String name, int limit) {
+        List<String> predicates = new ArrayList<>(2);
+        List<Object> args = new ArrayList<>(3);
+        if (brand != null) {
+            predicates.add("brand = ?");
+            args.add(brand);
+        }
+        if (name != null) {
+            predicates.add("lower(name) LIKE ?");
+            args.add("%" + name.toLowerCase(Locale.ROOT) + "%");
+        }
+        String where = predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates);
+        if (limit > 0) {
+            where += " ORDER BY created_at, device_id LIMIT ?";
+            args.add(limit);
+        }
+        return jdbcTemplate.query(SELECT + where, ROW_MAPPER, args.toArray());
+    }
+
+    public List<BrandStateCount> countByBrand() {
+        return jdbcTemplate.query("SELECT brand, count(*) AS devices FROM devices_archive GROUP BY brand",
+                (rs, rowNum) -> new BrandStateCount(rs.getString("brand"), DeviceStatus.INACTIVE, rs.getLong("devices")));
+    }
+}
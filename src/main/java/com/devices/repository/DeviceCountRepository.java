@@ -0,0 +1,87 @@
+package com.devices.repository;
+
+import com.devices.domain.DeviceStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Exact and planner-estimated row counts for the filters of {@link DeviceSpecification}. Only the filters
+ * that are set become predicates, so the planner estimates the query that is actually run. Like the list,
+ * counts include the archive only when INACTIVE devices are asked for.
+ */
+@Repository
+public class DeviceCountRepository {
+
+    private static final Pattern PLAN_ROWS = Pattern.compile(" rows=(\\d+) ");
+
+    private record Where(String sql, Object[] args) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DeviceCountRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public long count(String brand, String name, DeviceStatus state) {
+        long count = count("SELECT count(*) FROM devices", where(brand, name, state, true));
+        if (state == DeviceStatus.INACTIVE) {
+            count += count("SELECT count(*) FROM devices_archive", where(brand, name, null, false));
+        }
+        return count;
+    }
+
+    /**
+     * The row estimate of the top plan node, as shown by {@code EXPLAIN}. Only as good as the table's
+     * statistics, and typically far off for {@code name} substrings.
+     */
+    public long estimate(String brand, String name, DeviceStatus state) {
+        long estimate = estimate("EXPLAIN SELECT 1 FROM devices", where(brand, name, state, true));
+        if (state == DeviceStatus.INACTIVE) {
+            estimate += estimate("EXPLAIN SELECT 1 FROM devices_archive", where(brand, name, null, false));
+        }
+        return estimate;
+    }
+
+    private long count(String select, Where where) {
+        Long count = jdbcTemplate.queryForObject(select + where.sql(), Long.class, where.args());
+        return count == null ? 0 : count;
+    }
+
+    private long estimate(String explain, Where where) {
+        List<String> plan = jdbcTemplate.queryForList(explain + where.sql(), String.class, where.args());
+        Matcher rows = PLAN_ROWS.matcher(plan.getFirst());
+        if (!rows.find()) {
+            throw new IllegalStateException("No row estimate in plan: " + plan.getFirst());
+        }
+        return Long.parseLong(rows.group(1));
+    }
+
+    private static Where where(String brand, String name, DeviceStatus state, boolean liveOnly) {
+        List<String> predicates = new ArrayList<>(4);
+        if (liveOnly) {
+            predicates.add("deleted_at IS NULL");
+        }
+        List<Object> args = new ArrayList<>(3);
+        if (brand != null) {
+            predicates.add("brand = ?");
+            args.add(brand);
+        }
+        if (name != null) {
+            predicates.add("lower(name) LIKE ?");
+            args.add("%" + name.toLowerCase(Locale.ROOT) + "%");
+        }
+        if (state != null) {
+            predicates.add("state = ?");
+            args.add(state.name());
+        }
+        String sql = predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates);
+        return new Where(sql, args.toArray());
+    }
+}
@@ -0,0 +1,16 @@
+package com.devices.repository;
+
+import com.devices.domain.Device;
+import com.devices.domain.DeviceStatus;
+
+import java.util.List;
+
+public interface DeviceFilterRepository {
+
+    /**
+     * Live devices matching every filter that is not {@code null}: exact brand, case-insensitive name
+     * substring and exact state. A positive {@code limit} returns only that many devices by creation time (then
+     * id), skipping the first {@code offset}; otherwise all of them, unordered.
+     */
+    List<Device> findByFilter(String brand, String name, DeviceStatus state, int offset, int limit);
+}
@@ -0,0 +1,114 @@
+package com.devices.repository;
+
+import com.devices.config.FilterQueryProperties;
+import com.devices.domain.Device;
+import com.devices.domain.DeviceStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Each combination of set filters has its own JPQL query, in an unordered variant and one ordered by creation
+ * for limited (paged) reads, registered as a named query when the repository is created: Hibernate parses and
+ * validates the sixteen shapes once, no query carries placeholder predicates for unset filters, and each shape
+ * always renders the same SQL, which the PostgreSQL driver turns into a server-side prepared statement after a
+ * few executions on a connection.
+ */
+public class DeviceFilterRepositoryImpl implements DeviceFilterRepository {
+
+    private static final int BRAND = 1;
+
+    private static final int NAME = 2;
+
+    private static final int STATE = 4;
+
+    private static final int ORDERED = 8;
+
+    private static final int SHAPES = 16;
+
+    private final EntityManager entityManager;
+
+    private final boolean precompiled;
+
+    public DeviceFilterRepositoryImpl(EntityManager entityManager,
+                                      EntityManagerFactory entityManagerFactory,
+                                      FilterQueryProperties properties) {
+        this.entityManager = entityManager;
+        this.precompiled = properties.precompiled();
+        if (precompiled) {
+            try (EntityManager registering = entityManagerFactory.createEntityManager()) {
+                for (int shape = 0; shape < SHAPES; shape++) {
+                    entityManagerFactory.addNamedQuery(queryName(shape), registering.createQuery(jpql(shape), Device.class));
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<Device> findByFilter(String brand, String name, DeviceStatus state, int offset, int limit) {
+        if (!precompiled) {
+            return findBySpecification(brand, name, state, offset, limit);
+        }
+        int shape = (brand != null ? BRAND : 0) | (name != null ? NAME : 0) | (state != null ? STATE : 0)
+                | (limit > 0 ? ORDERED : 0);
+        TypedQuery<Device> query = entityManager.createNamedQuery(queryName(shape), Device.class);
+        if (brand != null) {
+            query.setParameter("brand", brand);
+        }
+        if (name != null) {
+            query.setParameter("name", "%" + name.toLowerCase(Locale.ROOT) + "%");
+        }
+        if (state != null) {
+            query.setParameter("state", state);
+        }
+        if (limit > 0) {
+            query.setFirstResult(offset).setMaxResults(limit);
+        }
+        return query.getResultList();
+    }
+
+    private List<Device> findBySpecification(String brand, String name, DeviceStatus state, int offset, int limit) {
+        Specification<Device> specification = Specification.
+                where(DeviceSpecification.hasBrand(brand)).
+                and(DeviceSpecification.nameContains(name)).
+                and(DeviceSpecification.hasState(state));
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Device> query = criteriaBuilder.createQuery(Device.class);
+        Root<Device> root = query.from(Device.class);
+        query.where(specification.toPredicate(root, query, criteriaBuilder));
+        if (limit <= 0) {
+            return entityManager.createQuery(query).getResultList();
+        }
+        query.orderBy(criteriaBuilder.asc(root.get("createdAt")), criteriaBuilder.asc(root.get("id")));
+        return entityManager.createQuery(query).setFirstResult(offset).setMaxResults(limit).getResultList();
+    }
+
+    private static String queryName(int shape) {
+        return "Device.findByFilter." + shape;
+    }
+
+    private static String jpql(int shape) {
+        List<String> predicates = new ArrayList<>(3);
+        if ((shape & BRAND) != 0) {
+            predicates.add("d.brand = :brand");
+        }
+        if ((shape & NAME) != 0) {
+            predicates.add("lower(d.name) LIKE :name");
+        }
+        if ((shape & STATE) != 0) {
+            predicates.add("d.state = :state");
+        }
+        String jpql = predicates.isEmpty()
+                ? "SELECT d FROM Device d"
+                : "SELECT d FROM Device d WHERE " + String.join(" AND ", predicates);
+        return (shape & ORDERED) != 0 ? jpql + " ORDER BY d.createdAt, d.id" : jpql;
+    }
+}
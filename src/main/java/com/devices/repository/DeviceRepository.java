@@ -1,9 +1,71 @@
 package com.devices.repository;
 
+import com.devices.domain.BrandStateCount;
 import com.devices.domain.Device;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.UUID;
 
-public interface DeviceRepository extends JpaRepository<Device, UUID>, JpaSpecificationExecutor<Device> { }
\ No newline at end of file
+public interface DeviceRepository extends JpaRepository<Device, UUID>, JpaSpecificationExecutor<Device>, DeviceFilterRepository {
+
+    /**
+     * Moves up to {@code count} AVAILABLE devices to IN_USE in one statement. Rows locked by concurrent
+     * claimers are skipped rather than waited for, so parallel callers always receive distinct devices.
+     */
+    @Transactional
+    @Query(value = """
+            UPDATE devices
+            SET state = 'IN_USE', version = version + 1
+            WHERE device_id IN (
+                SELECT device_id
+                FROM devices
+                WHERE state = 'AVAILABLE'
+                  AND deleted_at IS NULL
+                  AND (CAST(:brand AS VARCHAR) IS NULL OR brand = CAST(:brand AS VARCHAR))
+                ORDER BY created_at
+                LIMIT :count
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING *
+            """, nativeQuery = true)
+    List<Device> claimAvailable(@Param("brand") String brand, @Param("count") int count);
+
+    /**
+     * Loads all devices whose id is in {@code ids} with a single array-bound statement, regardless of how many
+     * ids are passed (unlike {@code IN (...)}, which yields a different statement per list length).
+     */
+    @Query(value = "SELECT * FROM devices WHERE device_id = ANY(:ids) AND deleted_at IS NULL", nativeQuery = true)
+    List<Device> findAllByIds(@Param("ids") UUID[] ids);
+
+    @Query("SELECT new com.devices.domain.BrandStateCount(d.brand, d.state, count(d)) FROM Device d GROUP BY d.brand, d.state")
+    List<BrandStateCount> countByBrandAndState();
+
+    /**
+     * Physically removes up to {@code limit} devices soft-deleted more than {@code minAgeSeconds} ago (by the
+     * database clock, which also stamped {@code deleted_at}), oldest first. Rows locked by a concurrent purge
+     * are skipped.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            DELETE FROM devices
+            WHERE device_id IN (
+                SELECT device_id
+                FROM devices
+                WHERE deleted_at < now() - make_interval(secs => :minAgeSeconds)
+                ORDER BY deleted_at
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            )
+            """, nativeQuery = true)
+    int purgeOlderThan(@Param("minAgeSeconds") double minAgeSeconds, @Param("limit") int limit);
+
+    @Query(value = "SELECT count(*) FROM devices WHERE deleted_at IS NOT NULL", nativeQuery = true)
+    long countTombstones();
+}
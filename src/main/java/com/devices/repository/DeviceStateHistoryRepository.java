@@ -0,0 +1,85 @@
+package com.devices.repository;
+
+import com.devices.domain.DeviceStateChange;
+import com.devices.domain.DeviceStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Plain JDBC access to the partitioned {@code device_state_history} table; entries are append-only and are
+ * never loaded as entities.
+ */
+@Repository
+public class DeviceStateHistoryRepository {
+
+    private static final String INSERT = """
+            INSERT INTO device_state_history (device_id, from_state, to_state, changed_at)
+            VALUES (?, ?, ?, ?)
+            """;
+
+    private static final String FIRST_PAGE = """
+            SELECT history_id, device_id, from_state, to_state, changed_at
+            FROM device_state_history
+            WHERE device_id = ?
+            ORDER BY changed_at DESC, history_id DESC
+            LIMIT ?
+            """;
+
+    private static final String NEXT_PAGE = """
+            SELECT history_id, device_id, from_state, to_state, changed_at
+            FROM device_state_history
+            WHERE device_id = ? AND (changed_at, history_id) < (?, ?)
+            ORDER BY changed_at DESC, history_id DESC
+            LIMIT ?
+            """;
+
+    private static final RowMapper<DeviceStateChange> ROW_MAPPER = (rs, rowNum) -> {
+        String toState = rs.getString("to_state");
+        return new DeviceStateChange(
+                rs.getLong("history_id"),
+                rs.getObject("device_id", UUID.class),
+                DeviceStatus.valueOf(rs.getString("from_state")),
+                toState == null ? null : DeviceStatus.valueOf(toState),
+                rs.getTimestamp("changed_at").toInstant());
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DeviceStateHistoryRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insertAll(List<DeviceStateChange> changes) {
+        jdbcTemplate.batchUpdate(INSERT, changes, changes.size(), (ps, change) -> {
+            ps.setObject(1, change.deviceId());
+            ps.setString(2, change.fromState().name());
+            ps.setString(3, change.toState() == null ? null : change.toState().name());
+            ps.setTimestamp(4, Timestamp.from(change.changedAt()));
+        });
+    }
+
+    /**
+     * Newest first. Pass the {@code changedAt}/{@code historyId} of the last entry of the previous page, or
+     * {@code null}s for the first page.
+     */
+    public List<DeviceStateChange> findPage(UUID deviceId, Instant beforeChangedAt, Long beforeHistoryId, int limit) {
+        if (beforeChangedAt == null || beforeHistoryId == null) {
+            return jdbcTemplate.query(FIRST_PAGE, ROW_MAPPER, deviceId, limit);
+        }
+        return jdbcTemplate.query(NEXT_PAGE, ROW_MAPPER, deviceId, Timestamp.from(beforeChangedAt), beforeHistoryId, limit);
+    }
+
+    /**
+     * Creates the monthly partition containing {@code month} unless it already exists.
+     */
+    public void createPartition(LocalDate month) {
+        jdbcTemplate.queryForList("SELECT create_device_state_history_partition(?)", month);
+    }
+}
@@ -0,0 +1,102 @@
+package com.devices.repository;
+
+import com.devices.api.dto.DeviceResponse;
+import com.devices.domain.DeviceStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Stores the outcome of idempotent device creations keyed by the client's {@code Idempotency-Key}.
+ */
+@Repository
+public class IdempotencyKeyRepository {
+
+    /**
+     * A stored creation: the hash of the request that used the key and the response it produced.
+     */
+    public record StoredCreation(String requestHash, DeviceResponse response, Instant storedAt) {
+    }
+
+    private static final String INSERT_OR_REPLACE_EXPIRED = """
+            INSERT INTO idempotency_keys (idempotency_key, request_hash, device_id, name, brand, state, device_created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (idempotency_key) DO UPDATE
+            SET request_hash = EXCLUDED.request_hash,
+                device_id = EXCLUDED.device_id,
+                name = EXCLUDED.name,
+                brand = EXCLUDED.brand,
+                state = EXCLUDED.state,
+                device_created_at = EXCLUDED.device_created_at,
+                created_at = NOW()
+            WHERE idempotency_keys.created_at < ?
+            """;
+
+    private static final String FIND = """
+            SELECT request_hash, device_id, name, brand, state, device_created_at, created_at
+            FROM idempotency_keys
+            WHERE idempotency_key = ?
+            """;
+
+    private static final String DELETE_EXPIRED = """
+            DELETE FROM idempotency_keys
+            WHERE idempotency_key IN (
+                SELECT idempotency_key FROM idempotency_keys WHERE created_at < ? LIMIT ?
+            )
+            """;
+
+    private static final RowMapper<StoredCreation> ROW_MAPPER = (rs, rowNum) -> new StoredCreation(
+            rs.getString("request_hash"),
+            new DeviceResponse(
+                    rs.getObject("device_id", UUID.class),
+                    rs.getString("name"),
+                    rs.getString("brand"),
+                    DeviceStatus.valueOf(rs.getString("state")),
+                    rs.getTimestamp("device_created_at").toInstant()),
+            rs.getTimestamp("created_at").toInstant());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdempotencyKeyRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Stores the result for {@code key} unless the key is taken by an entry stored at or after
+     * {@code expiredBefore}. A concurrent transaction inserting the same key makes this call wait until that
+     * transaction ends.
+     *
+     * @return whether this call stored the key
+     */
+    public boolean insertOrReplaceExpired(String key, String requestHash, DeviceResponse response, Instant expiredBefore) {
+        return jdbcTemplate.update(INSERT_OR_REPLACE_EXPIRED,
+                key,
+                requestHash,
+                response.id(),
+                response.name(),
+                response.brand(),
+                response.state().name(),
+                Timestamp.from(response.creationTime()),
+                Timestamp.from(expiredBefore)) == 1;
+    }
+
+    public Optional<StoredCreation> find(String key) {
+        List<StoredCreation> rows = jdbcTemplate.query(FIND, ROW_MAPPER, key);
+        return rows.stream().findFirst();
+    }
+
+    /**
+     * Deletes at most {@code limit} keys stored before {@code cutoff}.
+     *
+     * @return the number of deleted keys
+     */
+    public int deleteStoredBefore(Instant cutoff, int limit) {
+        return jdbcTemplate.update(DELETE_EXPIRED, Timestamp.from(cutoff), limit);
+    }
+}
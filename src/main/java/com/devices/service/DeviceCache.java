@@ -0,0 +1,186 @@
+package com.devices.service;
+
+import com.devices.api.dto.DeviceFilterRequest;
+import com.devices.api.dto.DeviceResponse;
+import com.devices.config.DeviceCacheProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, short-lived cache of single devices and filtered lists that stays coherent across instances:
+ * every write publishes a {@code NOTIFY} (see {@link DeviceChangePublisher}) and {@link DeviceChangeListener}
+ * evicts the affected entries on every node. Any change clears all cached filter results.
+ *
+ * <p>The cache is only used while the listener is connected. While it is not, reads go to the database and
+ * nothing is cached; on (re)connect everything is dropped, because notifications sent in between are lost.
+ * The TTL bounds staleness should a notification still go missing.
+ *
+ * <p>A value is only stored if no invalidation happened since its load started, so a read racing a write
+ * cannot put back a value the write has already evicted.
+ *
+ * <p>Filter results are bounded by the number of devices they hold in total, not only by their count: a list
+ * larger than {@code maxFilterDevices} on its own (an unfiltered list of a big table) is not cached at all, and
+ * the least recently used lists are evicted to make room for a new one.
+ */
+@Component
+public class DeviceCache {
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    private final boolean enabled;
+
+    private final long ttlNanos;
+
+    private final Map<UUID, Entry<DeviceResponse>> devices;
+
+    private final Map<DeviceFilterRequest, Entry<List<DeviceResponse>>> filters;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final int maxFilters;
+
+    private final int maxFilterDevices;
+
+    /**
+     * Written under the monitor, read without it on every cache miss.
+     */
+    private volatile long generation;
+
+    private int filterDevices;
+
+    private volatile boolean coherent;
+
+    public DeviceCache(DeviceCacheProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.enabled();
+        this.ttlNanos = properties.ttl().toNanos();
+        this.devices = lru(properties.maxDevices());
+        this.filters = new LinkedHashMap<>(16, 0.75f, true);
+        this.maxFilters = properties.maxFilters();
+        this.maxFilterDevices = properties.maxFilterDevices();
+        FunctionCounter.builder("devices.cache.hits", hits, LongAdder::sum).
+                description("Device reads served from the local cache").
+                register(meterRegistry);
+        FunctionCounter.builder("devices.cache.misses", misses, LongAdder::sum).
+                description("Device reads that had to query the database").
+                register(meterRegistry);
+        Gauge.builder("devices.cache.coherent", this, cache -> cache.coherent ? 1 : 0).
+                description("1 while the cache receives invalidations and is in use, 0 while it is bypassed").
+                register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Captures the invalidation count before a load; pass it to {@code put*} with the loaded value.
+     */
+    public long generation() {
+        return generation;
+    }
+
+    public DeviceResponse getDevice(UUID id) {
+        return get(devices, id);
+    }
+
+    public void putDevice(UUID id, DeviceResponse device, long loadedAt) {
+        put(devices, id, device, loadedAt);
+    }
+
+    public List<DeviceResponse> getFilter(DeviceFilterRequest filter) {
+        return get(filters, filter);
+    }
+
+    public void putFilter(DeviceFilterRequest filter, List<DeviceResponse> result, long loadedAt) {
+        if (!enabled || !coherent || result.size() > maxFilterDevices) {
+            return;
+        }
+        synchronized (this) {
+            if (generation != loadedAt) {
+                return;
+            }
+            Entry<List<DeviceResponse>> previous = filters.put(filter, new Entry<>(result, System.nanoTime() + ttlNanos));
+            filterDevices += result.size() - (previous == null ? 0 : previous.value().size());
+            // the new entry is the most recently used, and fits on its own, so it is never evicted here
+            Iterator<Entry<List<DeviceResponse>>> eldest = filters.values().iterator();
+            while (filters.size() > maxFilters || filterDevices > maxFilterDevices) {
+                filterDevices -= eldest.next().value().size();
+                eldest.remove();
+            }
+        }
+    }
+
+    public synchronized void invalidate(UUID id) {
+        generation++;
+        devices.remove(id);
+        clearFilters();
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        devices.clear();
+        clearFilters();
+    }
+
+    /**
+     * Called by the listener: the cache is dropped on every change, and only used while connected.
+     */
+    synchronized void setCoherent(boolean coherent) {
+        invalidateAll();
+        this.coherent = coherent;
+    }
+
+    private <K, V> V get(Map<K, Entry<V>> cache, K key) {
+        if (!enabled || !coherent) {
+            return null;
+        }
+        Entry<V> entry;
+        synchronized (this) {
+            entry = cache.get(key);
+        }
+        // an expired entry stays until it is replaced or evicted, which keeps the filter size accounting in put
+        if (entry == null || entry.expiresAt() - System.nanoTime() <= 0) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value();
+    }
+
+    private <K, V> void put(Map<K, Entry<V>> cache, K key, V value, long loadedAt) {
+        if (!enabled || !coherent) {
+            return;
+        }
+        synchronized (this) {
+            if (generation == loadedAt) {
+                cache.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+            }
+        }
+    }
+
+    private void clearFilters() {
+        filters.clear();
+        filterDevices = 0;
+    }
+
+    private static <K, V> Map<K, V> lru(int maxSize) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+}
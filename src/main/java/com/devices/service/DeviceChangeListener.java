@@ -0,0 +1,166 @@
+package com.devices.service;
+
+import com.devices.config.DeviceCacheProperties;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.jdbc.autoconfigure.JdbcConnectionDetails;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps a dedicated connection (outside the pool) subscribed to the device change channel and evicts what
+ * other instances report as changed. When the connection drops the cache is bypassed until the listener has
+ * reconnected; it then starts empty, which stands in for replaying the notifications missed in between.
+ */
+@Component
+public class DeviceChangeListener implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(DeviceChangeListener.class);
+
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+
+    private static final int POLL_MILLIS = 1_000;
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+    private final JdbcConnectionDetails connectionDetails;
+
+    private final DeviceCache cache;
+
+    private final String channel;
+
+    private final Duration reconnectDelay;
+
+    private final String applicationName;
+
+    private volatile boolean running;
+
+    private Thread thread;
+
+    public DeviceChangeListener(JdbcConnectionDetails connectionDetails,
+                                DeviceCache cache,
+                                DeviceCacheProperties properties,
+                                @Value("${spring.application.name:devices-api}") String applicationName) {
+        if (!CHANNEL_NAME.matcher(properties.channel()).matches()) {
+            throw new IllegalArgumentException("Invalid devices.cache.channel: " + properties.channel());
+        }
+        this.connectionDetails = connectionDetails;
+        this.cache = cache;
+        this.channel = properties.channel();
+        this.reconnectDelay = properties.reconnectDelay();
+        this.applicationName = applicationName + " change listener";
+    }
+
+    @Override
+    public void start() {
+        if (!cache.isEnabled()) {
+            return;
+        }
+        running = true;
+        thread = Thread.ofPlatform().daemon().name("device-change-listener").start(this::listen);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(POLL_MILLIS + VALIDATION_TIMEOUT_SECONDS * 1_000L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection listening = DriverManager.getConnection(connectionDetails.getJdbcUrl(), connectionProperties())) {
+                try (Statement statement = listening.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                cache.setCoherent(true);
+                log.info("Listening for device changes on channel '{}'", channel);
+                receive(listening.unwrap(PGConnection.class), listening);
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Device change listener lost its connection, bypassing the cache until it reconnects: {}",
+                            e.getMessage());
+                }
+            } finally {
+                cache.setCoherent(false);
+            }
+            pause();
+        }
+    }
+
+    private Properties connectionProperties() {
+        Properties properties = new Properties();
+        if (connectionDetails.getUsername() != null) {
+            properties.setProperty("user", connectionDetails.getUsername());
+        }
+        if (connectionDetails.getPassword() != null) {
+            properties.setProperty("password", connectionDetails.getPassword());
+        }
+        properties.setProperty("ApplicationName", applicationName);
+        return properties;
+    }
+
+    private void receive(PGConnection pgConnection, Connection listening) throws SQLException {
+        while (running) {
+            PGNotification[] notifications = pgConnection.getNotifications(POLL_MILLIS);
+            if (notifications == null || notifications.length == 0) {
+                if (!listening.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                    throw new SQLException("Listener connection is no longer valid");
+                }
+                continue;
+            }
+            for (PGNotification notification : notifications) {
+                apply(notification.getParameter());
+            }
+        }
+    }
+
+    private void apply(String payload) {
+        if (DeviceChangePublisher.ALL_DEVICES.equals(payload)) {
+            cache.invalidateAll();
+            return;
+        }
+        try {
+            cache.invalidate(UUID.fromString(payload));
+        } catch (IllegalArgumentException e) {
+            log.warn("Malformed device change '{}', dropping the whole cache", payload);
+            cache.invalidateAll();
+        }
+    }
+
+    private void pause() {
+        if (!running) {
+            return;
+        }
+        try {
+            Thread.sleep(reconnectDelay.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
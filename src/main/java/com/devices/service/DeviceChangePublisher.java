@@ -0,0 +1,82 @@
+package com.devices.service;
+
+import com.devices.config.DeviceCacheProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Announces device changes to every instance through {@code pg_notify}. Called inside the writing
+ * transaction: PostgreSQL delivers the notification only when that transaction commits and drops it on
+ * rollback. The local cache is evicted right after commit so this instance reads its own writes without
+ * waiting for the round trip. The eviction also advances {@link DeviceCache#generation()}, which keeps
+ * coalesced reads from sharing older loads, so it happens even when the cache is disabled.
+ */
+@Component
+public class DeviceChangePublisher {
+
+    static final String ALL_DEVICES = "*";
+
+    private static final String NOTIFY = "SELECT pg_notify(?, ?)";
+
+    private static final String NOTIFY_EACH = "SELECT pg_notify(?, id) FROM unnest(string_to_array(?, ',')) AS id";
+
+    private static final RowCallbackHandler IGNORE = rs -> {
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final DeviceCache cache;
+
+    private final String channel;
+
+    public DeviceChangePublisher(JdbcTemplate jdbcTemplate, DeviceCache cache, DeviceCacheProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cache = cache;
+        this.channel = properties.channel();
+    }
+
+    public void deviceChanged(UUID id) {
+        if (cache.isEnabled()) {
+            jdbcTemplate.query(NOTIFY, IGNORE, channel, id.toString());
+        }
+        afterCommit(() -> cache.invalidate(id));
+    }
+
+    public void devicesChanged(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        if (cache.isEnabled()) {
+            String joined = ids.stream().map(UUID::toString).collect(Collectors.joining(","));
+            jdbcTemplate.query(NOTIFY_EACH, IGNORE, channel, joined);
+        }
+        afterCommit(() -> ids.forEach(cache::invalidate));
+    }
+
+    public void allDevicesChanged() {
+        if (cache.isEnabled()) {
+            jdbcTemplate.query(NOTIFY, IGNORE, channel, ALL_DEVICES);
+        }
+        afterCommit(cache::invalidateAll);
+    }
+
+    private static void afterCommit(Runnable eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,63 @@
+package com.devices.service;
+
+import com.devices.api.dto.DeviceFilterRequest;
+import com.devices.config.DeviceCountProperties;
+import com.devices.domain.CountMode;
+import com.devices.domain.DeviceCount;
+import com.devices.repository.DeviceCountRepository;
+import com.devices.sharding.ShardRouter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Counts the devices matching a filter without loading them. Estimates come from the planner and cost
+ * one {@code EXPLAIN} regardless of table size; {@link CountMode#AUTO} pays for an exact count only when
+ * the estimate says it is small. With sharding, every shard is asked in parallel and the answers are added up.
+ */
+@Service
+public class DeviceCountService {
+
+    private final DeviceCountRepository countRepository;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ShardRouter shards;
+
+    private final long exactThreshold;
+
+    public DeviceCountService(DeviceCountRepository countRepository,
+                              PlatformTransactionManager transactionManager,
+                              ShardRouter shards,
+                              DeviceCountProperties properties) {
+        this.countRepository = countRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.shards = shards;
+        this.exactThreshold = properties.exactThreshold();
+    }
+
+    public DeviceCount count(DeviceFilterRequest filter, CountMode mode) {
+        if (mode == CountMode.EXACT) {
+            return exact(filter);
+        }
+        long estimate = sumOverShards(() -> countRepository.estimate(filter.brand(), filter.name(), filter.status()));
+        if (mode == CountMode.AUTO && estimate <= exactThreshold) {
+            return exact(filter);
+        }
+        return new DeviceCount(estimate, false);
+    }
+
+    private DeviceCount exact(DeviceFilterRequest filter) {
+        return new DeviceCount(sumOverShards(() -> countRepository.count(filter.brand(), filter.name(), filter.status())), true);
+    }
+
+    private long sumOverShards(LongSupplier count) {
+        return shards.scatterGather(shard -> readOnlyTransaction.execute(status -> count.getAsLong())).
+                stream().
+                mapToLong(Long::longValue).
+                sum();
+    }
+}
@@ -0,0 +1,95 @@
+package com.devices.service;
+
+import com.devices.api.dto.DeviceFilterRequest;
+import com.devices.sharding.ShardRouter;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streams devices as CSV straight from {@code COPY ... TO STDOUT} into the caller's stream; rows are never
+ * materialized as Java objects. Columns match {@code DeviceResponse}; timestamps are ISO-8601 in UTC. Like the
+ * list, the export includes archived devices only when INACTIVE ones are asked for. With sharding, the shards are
+ * copied one after another behind a single header, so rows are not globally ordered.
+ */
+@Service
+public class DeviceExportService {
+
+    public static final String CSV_HEADER = "id,name,brand,state,creationTime";
+
+    /**
+     * COPY takes no bind parameters, so the statement is rendered by PostgreSQL itself with {@code format()}
+     * and {@code %L}, which quotes the filter values as literals (NULL stays NULL).
+     */
+    private static final String RENDER_COPY_STATEMENT = """
+            SELECT format($copy$
+                COPY (
+                    SELECT device_id, name, brand, state,
+                           to_char(created_at AT TIME ZONE 'UTC', 'YYYY-MM-DD"T"HH24:MI:SS.US"Z"')
+                    FROM devices
+                    WHERE deleted_at IS NULL
+                      AND (%1$L IS NULL OR brand = %1$L)
+                      AND (%2$L IS NULL OR lower(name) LIKE '%%' || lower(%2$L) || '%%')
+                      AND (%3$L IS NULL OR state = %3$L)
+                    UNION ALL
+                    SELECT device_id, name, brand, state,
+                           to_char(created_at AT TIME ZONE 'UTC', 'YYYY-MM-DD"T"HH24:MI:SS.US"Z"')
+                    FROM devices_archive
+                    WHERE %3$L = 'INACTIVE'
+                      AND (%1$L IS NULL OR brand = %1$L)
+                      AND (%2$L IS NULL OR lower(name) LIKE '%%' || lower(%2$L) || '%%')
+                ) TO STDOUT WITH (FORMAT csv)
+            $copy$, CAST(? AS text), CAST(? AS text), CAST(? AS text))
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ShardRouter shards;
+
+    public DeviceExportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, ShardRouter shards) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.shards = shards;
+    }
+
+    /**
+     * @return the number of exported devices
+     */
+    public long exportCsv(DeviceFilterRequest filter, OutputStream out) {
+        try {
+            out.write((CSV_HEADER + "\n").getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write CSV export", e);
+        }
+        return shards.onEveryShard(shard -> readOnlyTransaction.execute(status -> exportShard(filter, out))).
+                stream().
+                mapToLong(Long::longValue).
+                sum();
+    }
+
+    private long exportShard(DeviceFilterRequest filter, OutputStream out) {
+        String copy = jdbcTemplate.queryForObject(RENDER_COPY_STATEMENT, String.class,
+                filter.brand(),
+                filter.name(),
+                filter.status() == null ? null : filter.status().name());
+        Long exported = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI().copyOut(copy, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write CSV export", e);
+            }
+        });
+        return exported == null ? 0 : exported;
+    }
+}
@@ -0,0 +1,68 @@
+package com.devices.service;
+
+import com.devices.api.dto.DeviceHistoryResponse;
+import com.devices.api.dto.DeviceStateChangeResponse;
+import com.devices.domain.DeviceStateChange;
+import com.devices.repository.DeviceStateHistoryRepository;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Pages through a device's state history with an opaque keyset cursor encoding the
+ * {@code (changed_at, history_id)} of the last entry returned, so every page is an index range scan.
+ */
+@Service
+public class DeviceHistoryService {
+
+    private final DeviceStateHistoryRepository historyRepository;
+
+    public DeviceHistoryService(DeviceStateHistoryRepository historyRepository) {
+        this.historyRepository = historyRepository;
+    }
+
+    public DeviceHistoryResponse findHistory(UUID deviceId, String cursor, int limit) {
+        Instant beforeChangedAt = null;
+        Long beforeHistoryId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            DeviceStateChange position = decodeCursor(cursor);
+            beforeChangedAt = position.changedAt();
+            beforeHistoryId = position.historyId();
+        }
+
+        List<DeviceStateChange> page = historyRepository.findPage(deviceId, beforeChangedAt, beforeHistoryId, limit + 1);
+        boolean hasMore = page.size() > limit;
+        List<DeviceStateChangeResponse> changes = new ArrayList<>(Math.min(page.size(), limit));
+        for (int i = 0; i < page.size() && i < limit; i++) {
+            DeviceStateChange change = page.get(i);
+            changes.add(new DeviceStateChangeResponse(change.fromState(), change.toState(), change.changedAt()));
+        }
+        String nextCursor = hasMore ? encodeCursor(page.get(limit - 1)) : null;
+        return new DeviceHistoryResponse(changes, nextCursor);
+    }
+
+    private static String encodeCursor(DeviceStateChange last) {
+        String position = last.changedAt().getEpochSecond() + "." + last.changedAt().getNano() + ":" + last.historyId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static DeviceStateChange decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            int dot = position.indexOf('.');
+            int colon = position.indexOf(':', dot + 1);
+            Instant changedAt = Instant.ofEpochSecond(
+                    Long.parseLong(position.substring(0, dot)),
+                    Long.parseLong(position.substring(dot + 1, colon)));
+            long historyId = Long.parseLong(position.substring(colon + 1));
+            return new DeviceStateChange(historyId, null, null, null, changedAt);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid history cursor");
+        }
+    }
+}
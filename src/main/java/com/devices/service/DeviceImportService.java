@@ -0,0 +1,240 @@
+package com.devices.service;
+
+import com.devices.api.dto.CreateDeviceRequest;
+import com.devices.api.dto.DeviceImportResponse;
+import com.devices.config.DeviceImportProperties;
+import com.devices.domain.DeviceStatus;
+import com.devices.sharding.ShardRouter;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Bulk-loads devices from CSV ({@code name,brand[,state]}). Rows are parsed and validated one at a time and
+ * streamed into a temporary staging table with {@code COPY}; a single {@code INSERT ... SELECT} then moves them
+ * into {@code devices}, so memory use does not depend on the size of the upload. The set-based move cannot spread
+ * rows over several databases, so importing is refused while devices are sharded.
+ */
+@Service
+public class DeviceImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(DeviceImportService.class);
+
+    private static final String CREATE_STAGING_TABLE = """
+            CREATE TEMP TABLE device_import_staging (
+                name  VARCHAR(100) NOT NULL,
+                brand VARCHAR(50)  NOT NULL,
+                state VARCHAR(20)  NOT NULL
+            ) ON COMMIT DROP
+            """;
+
+    private static final String COPY_INTO_STAGING =
+            "COPY device_import_staging (name, brand, state) FROM STDIN WITH (FORMAT csv)";
+
+    private static final String MOVE_STAGED_DEVICES = """
+            INSERT INTO devices (device_id, name, brand, state, created_at, version)
+            SELECT gen_random_uuid(), name, brand, state, now(), 0
+            FROM device_import_staging
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Validator validator;
+
+    private final DeviceImportProperties properties;
+
+    private final DeviceChangePublisher changes;
+
+    private final DeviceInventory inventory;
+
+    private final ShardRouter shards;
+
+    public DeviceImportService(JdbcTemplate jdbcTemplate,
+                               Validator validator,
+                               DeviceImportProperties properties,
+                               DeviceChangePublisher changes,
+                               DeviceInventory inventory,
+                               ShardRouter shards) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.validator = validator;
+        this.properties = properties;
+        this.changes = changes;
+        this.inventory = inventory;
+        this.shards = shards;
+    }
+
+    @Transactional
+    public DeviceImportResponse importCsv(InputStream csv) {
+        if (shards.isSharded()) {
+            throw new IllegalArgumentException("CSV import is not supported when devices are sharded across databases");
+        }
+        long started = System.nanoTime();
+        DeviceImportResponse response = jdbcTemplate.execute((ConnectionCallback<DeviceImportResponse>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_STAGING_TABLE);
+            }
+            ImportReport report = new ImportReport(properties.maxReportedRejections());
+            copyIntoStaging(connection, csv, report);
+            try (Statement statement = connection.createStatement()) {
+                return report.toResponse(statement.executeUpdate(MOVE_STAGED_DEVICES));
+            }
+        });
+        if (response.imported() > 0) {
+            changes.allDevicesChanged();
+            inventory.reconcileAfterCommit();
+        }
+        log.info("Imported {} devices ({} rows rejected) in {} ms", response.imported(), response.rejected(),
+                (System.nanoTime() - started) / 1_000_000);
+        return response;
+    }
+
+    private void copyIntoStaging(Connection connection, InputStream csv, ImportReport report) throws SQLException {
+        CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_INTO_STAGING);
+        try {
+            CsvRecordReader reader = new CsvRecordReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+            StringBuilder chunk = new StringBuilder(properties.copyChunkSize() + 1024);
+            boolean first = true;
+            List<String> record;
+            while ((record = reader.next()) != null) {
+                if (first) {
+                    first = false;
+                    if (isHeader(record)) {
+                        continue;
+                    }
+                }
+                List<String> errors = validate(record, reader.isMalformed());
+                if (!errors.isEmpty()) {
+                    report.reject(reader.recordLine(), errors);
+                    continue;
+                }
+                appendCopyRow(chunk, record);
+                if (chunk.length() >= properties.copyChunkSize()) {
+                    writeChunk(copyIn, chunk);
+                }
+            }
+            writeChunk(copyIn, chunk);
+            copyIn.endCopy();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read CSV upload", e);
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private List<String> validate(List<String> record, boolean malformed) {
+        if (malformed) {
+            return List.of("Unterminated quoted field");
+        }
+        if (record.size() < 2 || record.size() > 3) {
+            return List.of("Expected 2 or 3 columns (name, brand[, state]) but found " + record.size());
+        }
+        List<String> errors = List.of();
+        Set<ConstraintViolation<CreateDeviceRequest>> violations =
+                validator.validate(new CreateDeviceRequest(record.get(0), record.get(1)));
+        if (!violations.isEmpty()) {
+            errors = new ArrayList<>(violations.size() + 1);
+            for (ConstraintViolation<CreateDeviceRequest> violation : violations) {
+                errors.add(violation.getMessage());
+            }
+        }
+        if (record.size() == 3 && !record.get(2).isBlank() && !isDeviceStatus(record.get(2).strip())) {
+            if (errors.isEmpty()) {
+                errors = new ArrayList<>(1);
+            }
+            errors.add("Invalid device state: " + record.get(2));
+        }
+        return errors;
+    }
+
+    private static boolean isHeader(List<String> record) {
+        return record.size() >= 2
+                && record.get(0).strip().equalsIgnoreCase("name")
+                && record.get(1).strip().equalsIgnoreCase("brand");
+    }
+
+    private static boolean isDeviceStatus(String value) {
+        for (DeviceStatus status : DeviceStatus.values()) {
+            if (status.name().equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void appendCopyRow(StringBuilder chunk, List<String> record) {
+        appendQuoted(chunk, record.get(0));
+        chunk.append(',');
+        appendQuoted(chunk, record.get(1));
+        chunk.append(',');
+        chunk.append(record.size() == 3 && !record.get(2).isBlank()
+                ? record.get(2).strip()
+                : DeviceStatus.AVAILABLE.name());
+        chunk.append('\n');
+    }
+
+    private static void appendQuoted(StringBuilder chunk, String value) {
+        chunk.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                chunk.append('"');
+            }
+            chunk.append(c);
+        }
+        chunk.append('"');
+    }
+
+    private static void writeChunk(CopyIn copyIn, StringBuilder chunk) throws SQLException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        byte[] bytes = chunk.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        chunk.setLength(0);
+    }
+
+    private static final class ImportReport {
+
+        private final int maxReported;
+
+        private final List<DeviceImportResponse.RejectedRow> rejectedRows = new ArrayList<>();
+
+        private long rejected;
+
+        private ImportReport(int maxReported) {
+            this.maxReported = maxReported;
+        }
+
+        private void reject(long line, List<String> errors) {
+            rejected++;
+            if (rejectedRows.size() < maxReported) {
+                rejectedRows.add(new DeviceImportResponse.RejectedRow(line, errors));
+            }
+        }
+
+        private DeviceImportResponse toResponse(long imported) {
+            return new DeviceImportResponse(imported, rejected, List.copyOf(rejectedRows), rejected > rejectedRows.size());
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.devices.service;
+
+import com.devices.api.dto.DeviceStatsResponse;
+import com.devices.domain.BrandStateCount;
+import com.devices.domain.DeviceStatus;
+import com.devices.repository.DeviceArchiveRepository;
+import com.devices.repository.DeviceRepository;
+import com.devices.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Device counts per brand and state, kept in memory and adjusted by every write of {@link DeviceService} once
+ * its transaction commits. The counters are rebuilt from the database at startup and then reconciled on a
+ * schedule, which also picks up writes made by other instances or outside the service.
+ *
+ * <p>A write that commits while the reconciling query runs may end up counted twice or not at all; the
+ * difference found by the next reconciliation is reported as {@code devices.inventory.drift}.
+ */
+@Component
+public class DeviceInventory {
+
+    private static final Logger log = LoggerFactory.getLogger(DeviceInventory.class);
+
+    private record Key(String brand, DeviceStatus state) {
+    }
+
+    private record Delta(Key key, long amount) {
+    }
+
+    private final DeviceRepository deviceRepository;
+
+    private final DeviceArchiveRepository archiveRepository;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ShardRouter shards;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+
+    private final Counter drift;
+
+    private Map<Key, Long> counts = new HashMap<>();
+
+    private List<Delta> appliedDuringReconcile;
+
+    private boolean loaded;
+
+    /**
+     * Rendered on the first read after a change, so writes stay O(1) and reads are served from memory.
+     */
+    private volatile DeviceStatsResponse snapshot;
+
+    public DeviceInventory(DeviceRepository deviceRepository,
+                           DeviceArchiveRepository archiveRepository,
+                           PlatformTransactionManager transactionManager,
+                           ShardRouter shards,
+                           MeterRegistry meterRegistry) {
+        this.deviceRepository = deviceRepository;
+        this.archiveRepository = archiveRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // may run from afterCommit of another transaction
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // one snapshot for both tiers, so a device moved to the archive meanwhile is counted exactly once
+        this.readOnlyTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.shards = shards;
+        this.drift = Counter.builder("devices.inventory.drift").
+                description("Devices by which the in-memory inventory differed from the database when reconciled").
+                register(meterRegistry);
+    }
+
+    /**
+     * Returns the precomputed statistics; never touches the database.
+     */
+    public DeviceStatsResponse stats() {
+        DeviceStatsResponse stats = snapshot;
+        if (stats != null) {
+            return stats;
+        }
+        lock.lock();
+        try {
+            if (snapshot == null) {
+                snapshot = render(counts);
+            }
+            return snapshot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves one device from {@code (fromBrand, fromState)} to {@code (toBrand, toState)}; a {@code null} state on
+     * either side stands for a created or deleted device. Inside a transaction it takes effect after commit.
+     */
+    public void moved(String fromBrand, DeviceStatus fromState, String toBrand, DeviceStatus toState) {
+        if (fromState == toState && (fromState == null || fromBrand.equals(toBrand))) {
+            return;
+        }
+        List<Delta> deltas = new ArrayList<>(2);
+        if (fromState != null) {
+            deltas.add(new Delta(new Key(fromBrand, fromState), -1));
+        }
+        if (toState != null) {
+            deltas.add(new Delta(new Key(toBrand, toState), 1));
+        }
+        afterCommit(() -> apply(deltas));
+    }
+
+    /**
+     * For bulk changes whose breakdown is unknown, such as a CSV import: reconciles once the transaction commits.
+     */
+    public void reconcileAfterCommit() {
+        afterCommit(this::reconcile);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${devices.inventory.reconcile-interval:1m}", initialDelayString = "${devices.inventory.reconcile-interval:1m}")
+    public void reconcile() {
+        reconcileLock.lock();
+        try {
+            reconcileWithDatabase();
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    private void reconcileWithDatabase() {
+        lock.lock();
+        try {
+            appliedDuringReconcile = new ArrayList<>();
+        } finally {
+            lock.unlock();
+        }
+
+        List<BrandStateCount> rows;
+        try {
+            rows = shards.onEveryShard(shard -> readOnlyTransaction.execute(status -> {
+                List<BrandStateCount> counted = new ArrayList<>(deviceRepository.countByBrandAndState());
+                counted.addAll(archiveRepository.countByBrand());
+                return counted;
+            })).stream().flatMap(List::stream).toList();
+        } catch (RuntimeException e) {
+            lock.lock();
+            try {
+                appliedDuringReconcile = null;
+            } finally {
+                lock.unlock();
+            }
+            log.error("Failed to reconcile the device inventory", e);
+            return;
+        }
+
+        lock.lock();
+        try {
+            Map<Key, Long> fresh = new HashMap<>();
+            for (BrandStateCount row : rows) {
+                fresh.merge(new Key(row.brand(), row.state()), row.count(), Long::sum);
+            }
+            appliedDuringReconcile.forEach(delta -> add(fresh, delta));
+            appliedDuringReconcile = null;
+
+            long difference = 0;
+            Set<Key> keys = new HashSet<>(fresh.keySet());
+            keys.addAll(counts.keySet());
+            for (Key key : keys) {
+                difference += Math.abs(fresh.getOrDefault(key, 0L) - counts.getOrDefault(key, 0L));
+            }
+            if (loaded) {
+                drift.increment(difference);
+            }
+            loaded = true;
+            counts = fresh;
+            snapshot = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void apply(List<Delta> deltas) {
+        lock.lock();
+        try {
+            deltas.forEach(delta -> add(counts, delta));
+            if (appliedDuringReconcile != null) {
+                appliedDuringReconcile.addAll(deltas);
+            }
+            snapshot = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void add(Map<Key, Long> counts, Delta delta) {
+        counts.merge(delta.key(), delta.amount(), (current, amount) -> current + amount == 0 ? null : current + amount);
+    }
+
+    private static DeviceStatsResponse render(Map<Key, Long> counts) {
+        Map<String, Map<DeviceStatus, Long>> byBrand = new TreeMap<>();
+        Map<DeviceStatus, Long> byState = new EnumMap<>(DeviceStatus.class);
+        long total = 0;
+        for (Map.Entry<Key, Long> entry : counts.entrySet()) {
+            Key key = entry.getKey();
+            long count = entry.getValue();
+            byBrand.computeIfAbsent(key.brand(), brand -> new EnumMap<>(DeviceStatus.class)).merge(key.state(), count, Long::sum);
+            byState.merge(key.state(), count, Long::sum);
+            total += count;
+        }
+        List<DeviceStatsResponse.BrandStats> brands = new ArrayList<>(byBrand.size());
+        byBrand.forEach((brand, states) -> brands.add(new DeviceStatsResponse.BrandStats(
+                brand,
+                states.values().stream().mapToLong(Long::longValue).sum(),
+                Collections.unmodifiableMap(states))));
+        return new DeviceStatsResponse(total, Collections.unmodifiableMap(byState), Collections.unmodifiableList(brands));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -1,120 +1,399 @@
 package com.devices.service;
 
 import com.devices.api.DeviceAdministrationMapper;
+import com.devices.api.dto.ClaimDevicesRequest;
 import com.devices.api.dto.CreateDeviceRequest;
 import com.devices.api.dto.DeviceFilterRequest;
+import com.devices.api.dto.DeviceLookupRequest;
+import com.devices.api.dto.DeviceLookupResponse;
 import com.devices.api.dto.DeviceResponse;
+import com.devices.api.dto.PatchDeviceRequest;
 import com.devices.api.dto.PutDeviceRequest;
+import com.devices.config.DeviceLookupProperties;
+import com.devices.config.DevicePagingProperties;
+import com.devices.config.PatchRetryProperties;
+import com.devices.config.ReadCoalescingProperties;
+import com.devices.config.WriteLockProperties;
+import com.devices.domain.ArchivedDevice;
 import com.devices.domain.Device;
 import com.devices.domain.DeviceInUseException;
 import com.devices.domain.DeviceNotFoundException;
+import com.devices.domain.DeviceStatus;
 import com.devices.domain.VersionConflictException;
+import com.devices.repository.DeviceArchiveRepository;
 import com.devices.repository.DeviceRepository;
-import com.devices.repository.DeviceSpecification;
+import com.devices.sharding.ShardRouter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.dao.OptimisticLockingFailureException;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 public class DeviceService {
 
+    /**
+     * Matches {@code ORDER BY created_at, device_id}: PostgreSQL compares uuids bytewise, like their hex text.
+     */
+    private static final Comparator<DeviceResponse> CREATION_ORDER = Comparator.
+            comparing(DeviceResponse::creationTime).
+            thenComparing(device -> device.id().toString());
 
     private final DeviceRepository deviceRepository;
+
+    private final DeviceArchiveRepository archiveRepository;
     
     private final DeviceAdministrationMapper deviceAdministrationMapper;
 
-    public DeviceService(DeviceRepository deviceRepository, DeviceAdministrationMapper deviceAdministrationMapper) {
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final TransactionTemplate writeTransaction;
+
+    private final OptimisticLockRetry stateOnlyPatchRetry;
+
+    private final StripedWriteLock writeLock;
+
+    private final SingleFlight<UUID, DeviceResponse> deviceReads;
+
+    private final SingleFlight<DeviceFilterRequest, List<DeviceResponse>> filterReads;
+
+    private final DeviceStateHistoryRecorder stateHistory;
+
+    private final DeviceCache cache;
+
+    private final DeviceChangePublisher changes;
+
+    private final DeviceInventory inventory;
+
+    private final ShardRouter shards;
+
+    private final int maxLookupIds;
+
+    private final int maxMergedRows;
+
+    public DeviceService(DeviceRepository deviceRepository,
+                         DeviceArchiveRepository archiveRepository,
+                         DeviceAdministrationMapper deviceAdministrationMapper,
+                         PlatformTransactionManager transactionManager,
+                         ReadCoalescingProperties readCoalescingProperties,
+                         PatchRetryProperties patchRetryProperties,
+                         WriteLockProperties writeLockProperties,
+                         DeviceLookupProperties lookupProperties,
+                         DevicePagingProperties pagingProperties,
+                         DeviceStateHistoryRecorder stateHistory,
+                         DeviceCache cache,
+                         DeviceChangePublisher changes,
+                         DeviceInventory inventory,
+                         ShardRouter shards,
+                         MeterRegistry meterRegistry) {
         this.deviceRepository = deviceRepository;
+        this.archiveRepository = archiveRepository;
         this.deviceAdministrationMapper = deviceAdministrationMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.stateOnlyPatchRetry = new OptimisticLockRetry(patchRetryProperties, meterRegistry, "patch-state");
+        this.writeLock = new StripedWriteLock(writeLockProperties, meterRegistry);
+        this.deviceReads = new SingleFlight<>(readCoalescingProperties.enabled(), readCoalescingProperties.maxWait());
+        this.filterReads = new SingleFlight<>(readCoalescingProperties.enabled(), readCoalescingProperties.maxWait());
+        this.stateHistory = stateHistory;
+        this.cache = cache;
+        this.changes = changes;
+        this.inventory = inventory;
+        this.shards = shards;
+        this.maxLookupIds = lookupProperties.maxIds();
+        this.maxMergedRows = pagingProperties.maxMergedRows();
+        registerCoalescingMetrics(meterRegistry, "findById", deviceReads);
+        registerCoalescingMetrics(meterRegistry, "findDevices", filterReads);
     }
 
-    @Transactional
+    /**
+     * The id is chosen before the transaction starts, so that the transaction runs on the device's shard (or,
+     * when the caller already runs one on some shard, so that the device belongs there).
+     */
     public DeviceResponse create(CreateDeviceRequest request) {
-        Device device = deviceAdministrationMapper.toEntity(request);
-        Device savedDevice = deviceRepository.save(device);
-        return deviceAdministrationMapper.toResponse(savedDevice);
+        Device device = deviceAdministrationMapper.toEntity(shards.newId(), request);
+        return shards.onShardOf(device.getId(), () -> writeTransaction.execute(status -> {
+            Device savedDevice = deviceRepository.save(device);
+            changes.deviceChanged(savedDevice.getId());
+            inventory.moved(null, null, savedDevice.getBrand(), savedDevice.getState());
+            return deviceAdministrationMapper.toResponse(savedDevice);
+        }));
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Served from {@link DeviceCache} when possible. Concurrent misses with an equal filter share a single
+     * query, unless it started before a write this caller has to see; the transaction is opened by the caller
+     * that actually runs it, so waiting callers do not hold a connection. The archive is searched only when
+     * INACTIVE devices are asked for. A page from a single source is cut by the query itself; with sharding, or
+     * with the archive, all sources are queried in parallel and the page is cut from the merge of their first
+     * devices, which is why such pages may not reach deeper than {@code devices.paging.max-merged-rows}.
+     */
     public List<DeviceResponse> findDevices(DeviceFilterRequest filter) {
+        boolean merged = filter.isPaged() && (shards.isSharded() || filter.status() == DeviceStatus.INACTIVE);
+        checkPageDepth(filter, merged);
+        List<DeviceResponse> cached = cache.getFilter(filter);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = cache.generation();
+        return filterReads.execute(filter, generation, () -> {
+            List<DeviceResponse> result = merge(filter, merged, shards.scatterGather(shard ->
+                    readOnlyTransaction.execute(status -> findOnShard(filter, merged))));
+            cache.putFilter(filter, result, generation);
+            return result;
+        });
+    }
 
-        List<Device> devices = deviceRepository.findAll(
-                Specification.
-                        where(DeviceSpecification.hasBrand(filter.brand())).
-                        and(DeviceSpecification.nameContains(filter.name())).
-                        and(DeviceSpecification.hasState(filter.status()))
-        );
+    /**
+     * Cached and coalesced like {@link #findDevices(DeviceFilterRequest)}; falls back to the archive.
+     */
+    public DeviceResponse findById(UUID id) {
+        DeviceResponse cached = cache.getDevice(id);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = cache.generation();
+        return deviceReads.execute(id, generation, () -> {
+            DeviceResponse response = shards.onShardOf(id, () -> readOnlyTransaction.execute(status -> deviceRepository.findById(id).
+                    map(deviceAdministrationMapper::toResponse).
+                    or(() -> archiveRepository.findById(id).map(deviceAdministrationMapper::toResponse)).
+                    orElseThrow(() -> new DeviceNotFoundException(id))));
+            cache.putDevice(id, response, generation);
+            return response;
+        });
+    }
+
+    /**
+     * Resolves many ids with one query per shard (plus one on the archive for ids not found); duplicates are
+     * collapsed and the result keeps the request order.
+     */
+    public DeviceLookupResponse lookup(DeviceLookupRequest request) {
+        Set<UUID> ids = new LinkedHashSet<>(request.ids());
+        if (ids.size() > maxLookupIds) {
+            throw new IllegalArgumentException("At most %d distinct ids can be looked up at once".formatted(maxLookupIds));
+        }
+        List<List<UUID>> idsByShard = new ArrayList<>(shards.shardCount());
+        for (int shard = 0; shard < shards.shardCount(); shard++) {
+            idsByShard.add(new ArrayList<>());
+        }
+        ids.forEach(id -> idsByShard.get(shards.shardOf(id)).add(id));
+
+        Map<UUID, DeviceResponse> found = new HashMap<>();
+        shards.scatterGather(shard -> idsByShard.get(shard).isEmpty()
+                ? Map.<UUID, DeviceResponse>of()
+                : readOnlyTransaction.execute(status -> findAllOnShard(idsByShard.get(shard)))).
+                forEach(found::putAll);
 
-        return deviceAdministrationMapper.toResponseList(devices);
+        List<DeviceResponse> devices = new ArrayList<>(found.size());
+        List<UUID> missingIds = new ArrayList<>(ids.size() - found.size());
+        for (UUID id : ids) {
+            DeviceResponse device = found.get(id);
+            if (device == null) {
+                missingIds.add(id);
+            } else {
+                devices.add(device);
+            }
+        }
+        return new DeviceLookupResponse(devices, missingIds);
     }
 
+    private void checkPageDepth(DeviceFilterRequest filter, boolean merged) {
+        long rows = filter.rowsThroughPage();
+        if (merged && rows > maxMergedRows) {
+            throw new IllegalArgumentException(
+                    "Pages of this list may not reach beyond its first %d devices".formatted(maxMergedRows));
+        }
+        if (rows > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Page %d of size %d is out of range".formatted(filter.page(), filter.size()));
+        }
+    }
 
-    @Transactional(readOnly = true)
-    public DeviceResponse findById(UUID id) {
-        Device device = deviceRepository.findById(id).
-                // NOW: Just pass the ID
-                orElseThrow(() -> new DeviceNotFoundException(id));
-        return deviceAdministrationMapper.toResponse(device);
+    /**
+     * Bounds are checked by {@link #checkPageDepth}, so the {@code long} offsets fit an {@code int}.
+     */
+    private List<DeviceResponse> findOnShard(DeviceFilterRequest filter, boolean merged) {
+        int offset = filter.isPaged() && !merged ? (int) filter.offset() : 0;
+        int limit = !filter.isPaged() ? 0 : merged ? (int) filter.rowsThroughPage() : filter.size();
+        List<Device> devices = deviceRepository.findByFilter(filter.brand(), filter.name(), filter.status(), offset, limit);
+        List<DeviceResponse> responses = new ArrayList<>(deviceAdministrationMapper.toResponseList(devices));
+        if (filter.status() == DeviceStatus.INACTIVE) {
+            archiveRepository.find(filter.brand(), filter.name(), limit).
+                    forEach(archived -> responses.add(deviceAdministrationMapper.toResponse(archived)));
+        }
+        return responses;
     }
 
-    @Transactional
-    public void deleteById(UUID id) {
-        Device device = deviceRepository.findById(id).
-                orElseThrow(() -> new DeviceNotFoundException(id));
+    private static List<DeviceResponse> merge(DeviceFilterRequest filter, boolean cutPage,
+                                              List<List<DeviceResponse>> parts) {
+        List<DeviceResponse> merged = parts.size() == 1 ? parts.getFirst() : new ArrayList<>();
+        if (parts.size() > 1) {
+            parts.forEach(merged::addAll);
+        }
+        if (!cutPage) {
+            return List.copyOf(merged);
+        }
+        merged.sort(CREATION_ORDER);
+        int from = (int) Math.min(filter.offset(), merged.size());
+        return List.copyOf(merged.subList(from, Math.min(from + filter.size(), merged.size())));
+    }
 
-        switch (device.getState()) {
-            // NOW: Just pass the ID
-            case IN_USE -> throw new DeviceInUseException(id);
-            case AVAILABLE, INACTIVE -> {
-                deviceRepository.deleteById(id);
-                deviceRepository.flush();
+    private Map<UUID, DeviceResponse> findAllOnShard(List<UUID> ids) {
+        Map<UUID, DeviceResponse> found = new HashMap<>();
+        for (Device device : deviceRepository.findAllByIds(ids.toArray(UUID[]::new))) {
+            found.put(device.getId(), deviceAdministrationMapper.toResponse(device));
+        }
+        if (found.size() < ids.size()) {
+            UUID[] notFound = ids.stream().filter(id -> !found.containsKey(id)).toArray(UUID[]::new);
+            for (ArchivedDevice device : archiveRepository.findAllByIds(notFound)) {
+                found.put(device.id(), deviceAdministrationMapper.toResponse(device));
             }
         }
+        return found;
     }
 
-    @Transactional
-    public DeviceResponse updateFull(UUID id, PutDeviceRequest request) {
-        Device device = deviceRepository.findById(id).
-                orElseThrow(() -> new DeviceNotFoundException(id));
+    /**
+     * Only marks the device as deleted (see {@link Device}); {@link DeviceTombstonePurger} removes the row later.
+     */
+    public void deleteById(UUID id) {
+        shards.onShardOf(id, () -> writeTransaction.executeWithoutResult(status -> {
+            Device device = findForWrite(id);
 
+            switch (device.getState()) {
+                // NOW: Just pass the ID
+                case IN_USE -> throw new DeviceInUseException(id);
+                case AVAILABLE, INACTIVE -> {
+                    deviceRepository.deleteById(id);
+                    deviceRepository.flush();
+                    stateHistory.record(id, device.getState(), null);
+                    changes.deviceChanged(id);
+                    inventory.moved(device.getBrand(), device.getState(), null, null);
+                }
+            }
+        }));
+    }
+
+    /**
+     * Writes to the same device on this instance queue on {@link StripedWriteLock}, which is taken before
+     * the transaction starts and released after it commits.
+     */
+    public DeviceResponse updateFull(UUID id, PutDeviceRequest request) {
         try {
-            device.updateDetails(request.name(), request.brand(), request.state());
-            Device saved = deviceRepository.save(device);
-            return deviceAdministrationMapper.toResponse(saved);
+            return writeLock.execute(id, () -> shards.onShardOf(id, () -> writeTransaction.execute(status -> {
+                Device device = findForWrite(id);
+
+                String previousBrand = device.getBrand();
+                DeviceStatus previousState = device.getState();
+                device.updateDetails(request.name(), request.brand(), request.state());
+                Device saved = deviceRepository.saveAndFlush(device);
+                stateHistory.record(id, previousState, saved.getState());
+                changes.deviceChanged(id);
+                inventory.moved(previousBrand, previousState, saved.getBrand(), saved.getState());
+                return deviceAdministrationMapper.toResponse(saved);
+            })));
         } catch (OptimisticLockingFailureException e) {
             // NOW: Just pass the ID
             throw new VersionConflictException(id);
         }
     }
 
-    @Transactional
-    public DeviceResponse updatePartial(UUID id, com.devices.api.dto.PatchDeviceRequest patch) {
-        Device device = deviceRepository.findById(id).
-                orElseThrow(() -> new DeviceNotFoundException(id));
-
-        if (patch == null || (patch.name() == null && patch.brand() == null && patch.state() == null)) {
-            throw new IllegalArgumentException("PATCH request must contain at least one updatable field");
+    /**
+     * State-only patches do not depend on the name or brand they overwrite, so a conflict with a
+     * concurrent writer is resolved by re-reading the device and applying the patch again.
+     */
+    public DeviceResponse updatePartial(UUID id, PatchDeviceRequest patch) {
+        if (isStateOnly(patch)) {
+            return stateOnlyPatchRetry.execute(() -> applyPatch(id, patch));
         }
+        return applyPatch(id, patch);
+    }
 
-        device.validatePartialUpdate(patch.name(), patch.brand());
-        deviceAdministrationMapper.updateDeviceFromPatch(patch, device);
-
+    private DeviceResponse applyPatch(UUID id, PatchDeviceRequest patch) {
         try {
-            Device saved = deviceRepository.save(device);
-            return deviceAdministrationMapper.toResponse(saved);
+            return writeLock.execute(id, () -> shards.onShardOf(id, () -> writeTransaction.execute(status -> {
+                Device device = findForWrite(id);
+
+                if (patch == null || (patch.name() == null && patch.brand() == null && patch.state() == null)) {
+                    throw new IllegalArgumentException("PATCH request must contain at least one updatable field");
+                }
+
+                device.validatePartialUpdate(patch.name(), patch.brand());
+                String previousBrand = device.getBrand();
+                DeviceStatus previousState = device.getState();
+                deviceAdministrationMapper.updateDeviceFromPatch(patch, device);
+
+                Device saved = deviceRepository.saveAndFlush(device);
+                stateHistory.record(id, previousState, saved.getState());
+                changes.deviceChanged(id);
+                inventory.moved(previousBrand, previousState, saved.getBrand(), saved.getState());
+                return deviceAdministrationMapper.toResponse(saved);
+            })));
         } catch (OptimisticLockingFailureException e) {
             throw new VersionConflictException(id);
         }
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Loads a device for modification, moving it back from the archive first if it has been tiered out.
+     */
+    private Device findForWrite(UUID id) {
+        return deviceRepository.findById(id).
+                or(() -> archiveRepository.restore(id) ? deviceRepository.findById(id) : Optional.empty()).
+                orElseThrow(() -> new DeviceNotFoundException(id));
+    }
+
+    private static boolean isStateOnly(PatchDeviceRequest patch) {
+        return patch != null && patch.state() != null && patch.name() == null && patch.brand() == null;
+    }
+
+    /**
+     * With sharding, shards are tried one after another (each in its own transaction) until enough devices are
+     * claimed.
+     */
+    public List<DeviceResponse> claimAvailable(ClaimDevicesRequest request) {
+        List<DeviceResponse> claimed = new ArrayList<>(request.count());
+        shards.onEveryShard(shard -> claimed.size() < request.count()
+                && claimed.addAll(writeTransaction.execute(status -> claimOnShard(request.brand(), request.count() - claimed.size()))));
+        return List.copyOf(claimed);
+    }
+
+    private List<DeviceResponse> claimOnShard(String brand, int count) {
+        List<Device> claimed = deviceRepository.claimAvailable(brand, count);
+        claimed.forEach(device -> {
+            stateHistory.record(device.getId(), DeviceStatus.AVAILABLE, DeviceStatus.IN_USE);
+            inventory.moved(device.getBrand(), DeviceStatus.AVAILABLE, device.getBrand(), DeviceStatus.IN_USE);
+        });
+        changes.devicesChanged(claimed.stream().map(Device::getId).toList());
+        return deviceAdministrationMapper.toResponseList(claimed);
+    }
+
     public String computeEtag(UUID id) {
-        Device device = deviceRepository.findById(id)
-                .orElseThrow(() -> new DeviceNotFoundException(id));
-        return "\"" + (device.getVersion() == null ? 0 : device.getVersion()) + "\"";
+        return shards.onShardOf(id, () -> readOnlyTransaction.execute(status -> {
+            Device device = deviceRepository.findById(id)
+                    .orElseThrow(() -> new DeviceNotFoundException(id));
+            return "\"" + (device.getVersion() == null ? 0 : device.getVersion()) + "\"";
+        }));
+    }
+
+    private static void registerCoalescingMetrics(MeterRegistry meterRegistry, String operation, SingleFlight<?, ?> singleFlight) {
+        FunctionCounter.builder("devices.reads.coalesced", singleFlight, SingleFlight::getCoalescedCount).
+                description("Reads that were served by joining an identical in-flight query").
+                tag("operation", operation).
+                register(meterRegistry);
+        FunctionCounter.builder("devices.reads.coalescing.timeouts", singleFlight, SingleFlight::getWaitTimeoutCount).
+                description("Coalesced reads that stopped waiting and queried the database themselves").
+                tag("operation", operation).
+                register(meterRegistry);
     }
 }
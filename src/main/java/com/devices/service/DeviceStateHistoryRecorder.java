@@ -0,0 +1,138 @@
+package com.devices.service;
+
+import com.devices.config.StateHistoryProperties;
+import com.devices.domain.DeviceStateChange;
+import com.devices.domain.DeviceStatus;
+import com.devices.repository.DeviceStateHistoryRepository;
+import com.devices.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Collects state transitions in a bounded in-memory buffer and writes them to {@code device_state_history} in
+ * batches, off the request path. A transition is buffered only once its transaction has committed. When the
+ * buffer is full the committing thread flushes it itself, which throttles writers instead of dropping history.
+ * Entries still buffered when the process dies are lost; the history is an audit aid, not the source of truth.
+ * With sharding, all history is kept on shard 0.
+ */
+@Component
+public class DeviceStateHistoryRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(DeviceStateHistoryRecorder.class);
+
+    private final DeviceStateHistoryRepository historyRepository;
+
+    private final TransactionTemplate flushTransaction;
+
+    private final ShardRouter shards;
+
+    private final BlockingQueue<DeviceStateChange> buffer;
+
+    private final int batchSize;
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final Counter written;
+
+    private final Counter lost;
+
+    public DeviceStateHistoryRecorder(DeviceStateHistoryRepository historyRepository,
+                                      PlatformTransactionManager transactionManager,
+                                      ShardRouter shards,
+                                      StateHistoryProperties properties,
+                                      MeterRegistry meterRegistry) {
+        this.historyRepository = historyRepository;
+        this.flushTransaction = new TransactionTemplate(transactionManager);
+        this.flushTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.shards = shards;
+        this.buffer = new ArrayBlockingQueue<>(properties.bufferCapacity());
+        this.batchSize = properties.batchSize();
+        this.written = Counter.builder("devices.state_history.written").
+                description("State transitions written to device_state_history").
+                register(meterRegistry);
+        this.lost = Counter.builder("devices.state_history.lost").
+                description("State transitions that could not be written").
+                register(meterRegistry);
+        Gauge.builder("devices.state_history.buffered", buffer, BlockingQueue::size).
+                description("State transitions waiting to be written").
+                register(meterRegistry);
+    }
+
+    /**
+     * Records a transition of a device from {@code from} to {@code to} ({@code null} for a deletion). Inside a
+     * transaction the entry is buffered after commit and discarded on rollback.
+     */
+    public void record(UUID deviceId, DeviceStatus from, DeviceStatus to) {
+        if (from == to) {
+            return;
+        }
+        DeviceStateChange change = new DeviceStateChange(null, deviceId, from, to, Instant.now());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(change);
+                }
+            });
+        } else {
+            enqueue(change);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${devices.state-history.flush-interval:200ms}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<DeviceStateChange> batch = new ArrayList<>(batchSize);
+            while (buffer.drainTo(batch, batchSize) > 0) {
+                write(batch);
+                batch.clear();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private void enqueue(DeviceStateChange change) {
+        while (!buffer.offer(change)) {
+            flush();
+        }
+    }
+
+    private void write(List<DeviceStateChange> batch) {
+        try {
+            shards.onShardInNewTransaction(0, () -> {
+                flushTransaction.executeWithoutResult(status -> historyRepository.insertAll(batch));
+                return null;
+            });
+            written.increment(batch.size());
+        } catch (RuntimeException e) {
+            lost.increment(batch.size());
+            log.error("Failed to write {} device state transitions", batch.size(), e);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.devices.service;
+
+import com.devices.config.TieringProperties;
+import com.devices.repository.DeviceArchiveRepository;
+import com.devices.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves long-INACTIVE devices out of the hot {@code devices} table, so the table and its indexes only hold the
+ * devices that are actually being read and written. Each batch is its own short transaction and batches are
+ * paced, like the tombstone purge.
+ */
+@Component
+public class DeviceTieringJob {
+
+    private static final Logger log = LoggerFactory.getLogger(DeviceTieringJob.class);
+
+    private final DeviceArchiveRepository archiveRepository;
+
+    private final TieringProperties properties;
+
+    private final ShardRouter shards;
+
+    private final Counter archived;
+
+    public DeviceTieringJob(DeviceArchiveRepository archiveRepository,
+                            TieringProperties properties,
+                            ShardRouter shards,
+                            MeterRegistry meterRegistry) {
+        this.archiveRepository = archiveRepository;
+        this.properties = properties;
+        this.shards = shards;
+        this.archived = Counter.builder("devices.tiering.archived").
+                description("Long-inactive devices moved to the archive table").
+                register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${devices.tiering.interval:10m}", initialDelayString = "${devices.tiering.interval:10m}")
+    public void archiveIfEnabled() {
+        if (!properties.enabled()) {
+            return;
+        }
+        try {
+            archive();
+        } catch (RuntimeException e) {
+            log.error("Failed to archive inactive devices", e);
+        }
+    }
+
+    /**
+     * Runs up to {@code maxBatchesPerRun} batches on every shard now.
+     *
+     * @return the number of devices archived
+     */
+    public int archive() {
+        int moved = shards.onEveryShard(shard -> archiveShard()).stream().mapToInt(Integer::intValue).sum();
+        if (moved > 0) {
+            log.info("Archived {} inactive devices", moved);
+        }
+        return moved;
+    }
+
+    private int archiveShard() {
+        double minAgeSeconds = properties.inactiveAge().toMillis() / 1000.0;
+        int moved = 0;
+        for (int batch = 0; batch < properties.maxBatchesPerRun(); batch++) {
+            int count = archiveRepository.archiveInactive(minAgeSeconds, properties.batchSize());
+            moved += count;
+            archived.increment(count);
+            if (count < properties.batchSize() || !pause()) {
+                break;
+            }
+        }
+        return moved;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(properties.batchPause().toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
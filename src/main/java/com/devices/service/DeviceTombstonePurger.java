@@ -0,0 +1,122 @@
+package com.devices.service;
+
+import com.devices.config.TombstonePurgeProperties;
+import com.devices.repository.DeviceRepository;
+import com.devices.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Physically removes soft-deleted devices. Each batch is its own short transaction, and batches are paced and
+ * only run in the configured quiet window, so index maintenance and row locks never pile up during peak hours.
+ * The number of tombstones waiting is refreshed on every tick (cheap, from a partial index) and published as
+ * {@code devices.purge.backlog}.
+ */
+@Component
+public class DeviceTombstonePurger {
+
+    private static final Logger log = LoggerFactory.getLogger(DeviceTombstonePurger.class);
+
+    private final DeviceRepository deviceRepository;
+
+    private final TombstonePurgeProperties properties;
+
+    private final ShardRouter shards;
+
+    private final Clock clock;
+
+    private final AtomicLong backlog = new AtomicLong();
+
+    private final Counter purged;
+
+    public DeviceTombstonePurger(DeviceRepository deviceRepository,
+                                 TombstonePurgeProperties properties,
+                                 ShardRouter shards,
+                                 MeterRegistry meterRegistry) {
+        this.deviceRepository = deviceRepository;
+        this.properties = properties;
+        this.shards = shards;
+        this.clock = Clock.system(properties.zone());
+        this.purged = Counter.builder("devices.purge.purged").
+                description("Soft-deleted devices physically removed").
+                register(meterRegistry);
+        Gauge.builder("devices.purge.backlog", backlog, AtomicLong::get).
+                description("Soft-deleted devices waiting to be purged").
+                register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${devices.purge.interval:1m}", initialDelayString = "${devices.purge.interval:1m}")
+    public void purgeIfQuiet() {
+        try {
+            backlog.set(countTombstones());
+            if (backlog.get() > 0 && isQuiet(LocalTime.now(clock))) {
+                purge();
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to purge deleted devices", e);
+        }
+    }
+
+    /**
+     * Runs up to {@code maxBatchesPerRun} batches on every shard now, regardless of the quiet window.
+     *
+     * @return the number of devices removed
+     */
+    public int purge() {
+        int removed = shards.onEveryShard(shard -> purgeShard()).stream().mapToInt(Integer::intValue).sum();
+        backlog.set(countTombstones());
+        if (removed > 0) {
+            log.info("Purged {} deleted devices, {} left", removed, backlog.get());
+        }
+        return removed;
+    }
+
+    private int purgeShard() {
+        double minAgeSeconds = properties.minAge().toMillis() / 1000.0;
+        int removed = 0;
+        for (int batch = 0; batch < properties.maxBatchesPerRun(); batch++) {
+            int count = deviceRepository.purgeOlderThan(minAgeSeconds, properties.batchSize());
+            removed += count;
+            purged.increment(count);
+            if (count < properties.batchSize() || !pause()) {
+                break;
+            }
+        }
+        return removed;
+    }
+
+    private long countTombstones() {
+        return shards.onEveryShard(shard -> deviceRepository.countTombstones()).stream().mapToLong(Long::longValue).sum();
+    }
+
+    boolean isQuiet(LocalTime now) {
+        LocalTime start = properties.quietStart();
+        LocalTime end = properties.quietEnd();
+        if (start.equals(end)) {
+            return true;
+        }
+        if (start.isBefore(end)) {
+            return !now.isBefore(start) && now.isBefore(end);
+        }
+        return !now.isBefore(start) || now.isBefore(end);
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(properties.batchPause().toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
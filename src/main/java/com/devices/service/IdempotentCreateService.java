@@ -0,0 +1,150 @@
+package com.devices.service;
+
+import com.devices.api.dto.CreateDeviceRequest;
+import com.devices.api.dto.DeviceResponse;
+import com.devices.config.IdempotencyProperties;
+import com.devices.domain.IdempotencyKeyReusedException;
+import com.devices.repository.IdempotencyKeyRepository;
+import com.devices.repository.IdempotencyKeyRepository.StoredCreation;
+import com.devices.sharding.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Device creation keyed by a client-supplied {@code Idempotency-Key}: the first request with a key creates the
+ * device, later requests with the same key and payload get the original response without another insert.
+ * Recent results are served from a bounded in-memory LRU; the {@code idempotency_keys} table is the source of
+ * truth across restarts and instances. Concurrent duplicates are serialized by the table's primary key: the
+ * loser waits for the winner's commit, rolls back its own insert and replays the winner's result. With sharding,
+ * a key is stored on the shard its hash points to, and the device is created there in the same transaction.
+ */
+@Service
+public class IdempotentCreateService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotentCreateService.class);
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final DeviceService deviceService;
+
+    private final IdempotencyKeyRepository keyRepository;
+
+    private final TransactionTemplate writeTransaction;
+
+    private final ShardRouter shards;
+
+    private final Duration ttl;
+
+    private final int cleanupBatchSize;
+
+    private final Map<String, StoredCreation> recent;
+
+    public IdempotentCreateService(DeviceService deviceService,
+                                   IdempotencyKeyRepository keyRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   ShardRouter shards,
+                                   IdempotencyProperties properties) {
+        this.deviceService = deviceService;
+        this.keyRepository = keyRepository;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.shards = shards;
+        this.ttl = properties.ttl();
+        this.cleanupBatchSize = properties.cleanupBatchSize();
+        int cacheSize = properties.cacheSize();
+        this.recent = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredCreation> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    public DeviceResponse create(CreateDeviceRequest request, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return deviceService.create(request);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to %d characters".formatted(MAX_KEY_LENGTH));
+        }
+        String requestHash = hash(request);
+
+        StoredCreation cached = recent.get(idempotencyKey);
+        if (cached != null && !isExpired(cached)) {
+            return replay(idempotencyKey, requestHash, cached);
+        }
+
+        StoredCreation stored = shards.onShard(shards.shardOf(idempotencyKey), () -> writeTransaction.execute(status -> {
+            Optional<StoredCreation> existing = keyRepository.find(idempotencyKey).filter(creation -> !isExpired(creation));
+            if (existing.isPresent()) {
+                return existing.get();
+            }
+            DeviceResponse created = deviceService.create(request);
+            if (keyRepository.insertOrReplaceExpired(idempotencyKey, requestHash, created, Instant.now().minus(ttl))) {
+                return new StoredCreation(requestHash, created, Instant.now());
+            }
+            // A concurrent request with the same key committed first
+            status.setRollbackOnly();
+            return keyRepository.find(idempotencyKey).
+                    orElseThrow(() -> new IllegalStateException("Idempotency key vanished: " + idempotencyKey));
+        }));
+        recent.put(idempotencyKey, stored);
+        return replay(idempotencyKey, requestHash, stored);
+    }
+
+    @Scheduled(fixedDelayString = "${devices.idempotency.cleanup-interval:15m}")
+    public void deleteExpiredKeys() {
+        Instant cutoff = Instant.now().minus(ttl);
+        long total = shards.onEveryShard(shard -> deleteStoredBefore(cutoff)).stream().mapToLong(Long::longValue).sum();
+        if (total > 0) {
+            log.info("Deleted {} expired idempotency keys", total);
+        }
+    }
+
+    private long deleteStoredBefore(Instant cutoff) {
+        int deleted;
+        long total = 0;
+        do {
+            deleted = keyRepository.deleteStoredBefore(cutoff, cleanupBatchSize);
+            total += deleted;
+        } while (deleted == cleanupBatchSize);
+        return total;
+    }
+
+    private DeviceResponse replay(String idempotencyKey, String requestHash, StoredCreation stored) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyReusedException(idempotencyKey);
+        }
+        return stored.response();
+    }
+
+    private boolean isExpired(StoredCreation creation) {
+        return creation.storedAt().plus(ttl).isBefore(Instant.now());
+    }
+
+    private static String hash(CreateDeviceRequest request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(request.name().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(request.brand().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
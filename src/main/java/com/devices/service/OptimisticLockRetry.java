@@ -0,0 +1,73 @@
+package com.devices.service;
+
+import com.devices.config.PatchRetryProperties;
+import com.devices.domain.VersionConflictException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Re-runs an operation that lost an optimistic-lock race, sleeping a random ("full jitter") share of an
+ * exponentially growing backoff between attempts. Only use it for operations that re-read the entity and
+ * whose outcome does not depend on the state they overwrite.
+ */
+public class OptimisticLockRetry {
+
+    private final int maxAttempts;
+
+    private final long initialBackoffNanos;
+
+    private final long maxBackoffNanos;
+
+    private final Counter retries;
+
+    private final Counter exhausted;
+
+    public OptimisticLockRetry(PatchRetryProperties properties, MeterRegistry meterRegistry, String operation) {
+        this.maxAttempts = properties.enabled() ? Math.max(1, properties.maxAttempts()) : 1;
+        this.initialBackoffNanos = properties.initialBackoff().toNanos();
+        this.maxBackoffNanos = properties.maxBackoff().toNanos();
+        this.retries = Counter.builder("devices.optimistic_lock.retries").
+                description("Attempts repeated after an optimistic-lock conflict").
+                tag("operation", operation).
+                register(meterRegistry);
+        this.exhausted = Counter.builder("devices.optimistic_lock.retries.exhausted").
+                description("Operations that still conflicted after the last attempt").
+                tag("operation", operation).
+                register(meterRegistry);
+    }
+
+    public <T> T execute(Supplier<T> operation) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return operation.get();
+            } catch (VersionConflictException | OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    if (maxAttempts > 1) {
+                        exhausted.increment();
+                    }
+                    throw e;
+                }
+                retries.increment();
+                backOff(attempt, e);
+            }
+        }
+    }
+
+    private void backOff(int attempt, RuntimeException conflict) {
+        long ceiling = Math.min(maxBackoffNanos, initialBackoffNanos << Math.min(attempt - 1, 30));
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.devices.service;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key into one execution. The first caller runs the loader,
+ * callers arriving while it is in flight wait for and share its result (or exception). A follower that
+ * waits longer than {@code maxWait} stops waiting and runs the loader itself.
+ *
+ * <p>Nothing is retained once a call completes, so this is not a cache. Callers pass the write generation
+ * they started at (see {@link DeviceCache#generation()}) and only join a call that started at the same or a
+ * later one; otherwise they run their own call, which later callers then join. A read that starts after a
+ * write has committed on this instance therefore never shares a result loaded before the write.
+ */
+public class SingleFlight<K, V> {
+
+    private record Flight<V>(CompletableFuture<V> result, long generation) {
+    }
+
+    private final ConcurrentHashMap<K, Flight<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final boolean enabled;
+
+    private final long maxWaitNanos;
+
+    private final LongAdder coalesced = new LongAdder();
+
+    private final LongAdder waitTimeouts = new LongAdder();
+
+    public SingleFlight(boolean enabled, Duration maxWait) {
+        this.enabled = enabled;
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    /**
+     * For callers that do not care which writes the result reflects.
+     */
+    public V execute(K key, Supplier<V> loader) {
+        return execute(key, 0, loader);
+    }
+
+    public V execute(K key, long generation, Supplier<V> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        Flight<V> own = new Flight<>(new CompletableFuture<>(), generation);
+        // a call that started before a write this caller has to see is left to finish on its own
+        Flight<V> current = inFlight.compute(key, (k, existing) ->
+                existing != null && existing.generation() >= generation ? existing : own);
+        if (current != own) {
+            return awaitShared(current.result(), loader);
+        }
+
+        try {
+            V value = loader.get();
+            own.result().complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            own.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    public long getWaitTimeoutCount() {
+        return waitTimeouts.sum();
+    }
+
+    private V awaitShared(CompletableFuture<V> shared, Supplier<V> loader) {
+        coalesced.increment();
+        try {
+            return shared.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            waitTimeouts.increment();
+            return loader.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a coalesced read", e);
+        }
+    }
+}
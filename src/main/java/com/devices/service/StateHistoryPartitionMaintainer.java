@@ -0,0 +1,45 @@
+package com.devices.service;
+
+import com.devices.config.StateHistoryProperties;
+import com.devices.repository.DeviceStateHistoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Keeps monthly {@code device_state_history} partitions created ahead of time so new rows never land in the
+ * default partition (which would block creating the partition for that month later).
+ */
+@Component
+public class StateHistoryPartitionMaintainer {
+
+    private static final Logger log = LoggerFactory.getLogger(StateHistoryPartitionMaintainer.class);
+
+    private final DeviceStateHistoryRepository historyRepository;
+
+    private final int monthsAhead;
+
+    public StateHistoryPartitionMaintainer(DeviceStateHistoryRepository historyRepository, StateHistoryProperties properties) {
+        this.historyRepository = historyRepository;
+        this.monthsAhead = properties.partitionMonthsAhead();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${devices.state-history.partition-cron:0 17 3 * * *}", zone = "UTC")
+    public void createUpcomingPartitions() {
+        LocalDate month = LocalDate.now(ZoneOffset.UTC).withDayOfMonth(1);
+        for (int i = 0; i <= monthsAhead; i++) {
+            try {
+                historyRepository.createPartition(month.plusMonths(i));
+            } catch (RuntimeException e) {
+                log.error("Failed to create device_state_history partition for {}", month.plusMonths(i), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.devices.service;
+
+import com.devices.config.WriteLockProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serializes writes to the same device within this instance so that they queue on a local lock instead of
+ * racing for the row version in the database. Devices are mapped onto a fixed number of fair locks by the
+ * hash of their id; two devices that share a stripe are serialized too, which is harmless with enough stripes.
+ *
+ * <p>The lock has to be held around the whole transaction, including the commit. A writer that waits longer
+ * than {@code maxWait} runs without it and falls back to optimistic locking, which still guards correctness
+ * (and is the only guard against writers on other instances).
+ */
+public class StripedWriteLock {
+
+    private final ReentrantLock[] stripes;
+
+    private final int mask;
+
+    private final boolean enabled;
+
+    private final long maxWaitNanos;
+
+    private final Timer waitTime;
+
+    private final Counter waitTimeouts;
+
+    public StripedWriteLock(WriteLockProperties properties, MeterRegistry meterRegistry) {
+        int size = Integer.highestOneBit(Math.max(1, Math.min(properties.stripes(), 1 << 16)) * 2 - 1);
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock(true);
+        }
+        this.mask = size - 1;
+        this.enabled = properties.enabled();
+        this.maxWaitNanos = properties.maxWait().toNanos();
+        this.waitTime = Timer.builder("devices.write_lock.wait").
+                description("Time writers spent waiting for the per-device write lock").
+                register(meterRegistry);
+        this.waitTimeouts = Counter.builder("devices.write_lock.timeouts").
+                description("Writers that stopped waiting for the per-device write lock and ran without it").
+                register(meterRegistry);
+    }
+
+    public <T> T execute(UUID id, Supplier<T> operation) {
+        if (!enabled) {
+            return operation.get();
+        }
+
+        ReentrantLock lock = stripes[stripe(id)];
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = lock.tryLock(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the write lock of device " + id, e);
+        }
+        waitTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        if (!acquired) {
+            waitTimeouts.increment();
+            return operation.get();
+        }
+        try {
+            return operation.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int stripe(UUID id) {
+        int hash = id.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,190 @@
+package com.devices.sharding;
+
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Decides which database a device lives in and binds that shard to the current thread, which
+ * {@link ShardRoutingDataSource} then hands connections for. A shard has to be bound before a transaction
+ * starts: the transaction keeps the connection it started with. Nothing is bound and everything runs on
+ * shard 0 unless sharding is enabled.
+ */
+public class ShardRouter implements AutoCloseable {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private final int shardCount;
+
+    private final Duration gatherTimeout;
+
+    private final ExecutorService gatherExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ShardRouter(int shardCount, Duration gatherTimeout) {
+        this.shardCount = shardCount;
+        this.gatherTimeout = gatherTimeout;
+    }
+
+    /**
+     * The shard bound to the calling thread, {@code 0} when none is.
+     */
+    static int current() {
+        Integer shard = CURRENT.get();
+        return shard == null ? 0 : shard;
+    }
+
+    public boolean isSharded() {
+        return shardCount > 1;
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    /**
+     * Stable for the lifetime of the data: {@link UUID#hashCode()} is specified, so the mapping never changes
+     * for a given number of shards.
+     */
+    public int shardOf(UUID id) {
+        return Math.floorMod(id.hashCode(), shardCount);
+    }
+
+    public int shardOf(String key) {
+        return Math.floorMod(key.hashCode(), shardCount);
+    }
+
+    /**
+     * A random id for a new device; inside {@link #onShard} it belongs to the bound shard, so the device can be
+     * written in the transaction that is already running there.
+     */
+    public UUID newId() {
+        UUID id = UUID.randomUUID();
+        Integer bound = CURRENT.get();
+        while (bound != null && shardOf(id) != bound) {
+            id = UUID.randomUUID();
+        }
+        return id;
+    }
+
+    public <T> T onShardOf(UUID id, Supplier<T> action) {
+        return onShard(shardOf(id), action);
+    }
+
+    public void onShardOf(UUID id, Runnable action) {
+        onShard(shardOf(id), () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public <T> T onShard(int shard, Supplier<T> action) {
+        return bind(shard, action, false);
+    }
+
+    /**
+     * Like {@link #onShard}, but also allowed inside a transaction on another shard: {@code action} must only
+     * run {@code REQUIRES_NEW} transactions, which suspend the caller's and fetch a connection of their own.
+     */
+    public <T> T onShardInNewTransaction(int shard, Supplier<T> action) {
+        return bind(shard, action, true);
+    }
+
+    private <T> T bind(int shard, Supplier<T> action, boolean newTransaction) {
+        if (!isSharded()) {
+            return action.get();
+        }
+        Integer previous = CURRENT.get();
+        if (previous != null && previous == shard) {
+            return action.get();
+        }
+        if (!newTransaction && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Cannot switch to shard %d inside a transaction on shard %d".
+                    formatted(shard, current()));
+        }
+        CURRENT.set(shard);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Runs {@code action} on every shard in turn, starting at a random one so that callers spread their load.
+     */
+    public <T> List<T> onEveryShard(IntFunction<T> action) {
+        List<T> results = new ArrayList<>(shardCount);
+        int first = isSharded() ? ThreadLocalRandom.current().nextInt(shardCount) : 0;
+        for (int i = 0; i < shardCount; i++) {
+            int shard = (first + i) % shardCount;
+            results.add(onShard(shard, () -> action.apply(shard)));
+        }
+        return results;
+    }
+
+    /**
+     * Runs {@code action} on every shard at once and waits at most the gather timeout for all of them. Results
+     * are in shard order. Without sharding the action simply runs on the calling thread.
+     */
+    public <T> List<T> scatterGather(IntFunction<T> action) {
+        if (!isSharded()) {
+            return List.of(action.apply(0));
+        }
+        List<Callable<T>> tasks = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            tasks.add(() -> onShard(target, () -> action.apply(target)));
+        }
+        List<Future<T>> futures;
+        try {
+            futures = gatherExecutor.invokeAll(tasks, gatherTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new QueryTimeoutException("Interrupted while waiting for the shards");
+        }
+        List<T> results = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            results.add(result(shard, futures.get(shard)));
+        }
+        return results;
+    }
+
+    private <T> T result(int shard, Future<T> future) {
+        try {
+            return future.get();
+        } catch (CancellationException e) {
+            throw new QueryTimeoutException("Shard %d did not answer within %s".formatted(shard, gatherTimeout));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new QueryTimeoutException("Interrupted while waiting for shard " + shard);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Query on shard %d failed".formatted(shard), e.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        gatherExecutor.shutdownNow();
+    }
+}
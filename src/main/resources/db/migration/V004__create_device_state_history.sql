@@ -0,0 +1,37 @@
+-- Audit trail of device state transitions, range-partitioned by month on changed_at.
+-- to_state is NULL when the device was deleted.
+CREATE SEQUENCE IF NOT EXISTS device_state_history_id_seq;
+
+CREATE TABLE IF NOT EXISTS device_state_history (
+    history_id  BIGINT      NOT NULL DEFAULT nextval('device_state_history_id_seq'),
+    device_id   UUID        NOT NULL,
+    from_state  VARCHAR(20) NOT NULL,
+    to_state    VARCHAR(20),
+    changed_at  TIMESTAMPTZ NOT NULL,
+    PRIMARY KEY (changed_at, history_id)
+) PARTITION BY RANGE (changed_at);
+
+ALTER SEQUENCE device_state_history_id_seq OWNED BY device_state_history.history_id;
+
+-- Serves GET /api/v1/devices/{id}/history (newest first, keyset on changed_at, history_id)
+CREATE INDEX IF NOT EXISTS idx_device_state_history_device
+    ON device_state_history (device_id, changed_at DESC, history_id DESC);
+
+-- Creates the partition holding the given month (UTC) if it does not exist yet.
+CREATE OR REPLACE FUNCTION create_device_state_history_partition(month_start DATE) RETURNS VOID AS $$
+DECLARE
+    first_day DATE := date_trunc('month', month_start)::date;
+BEGIN
+    EXECUTE format(
+        'CREATE TABLE IF NOT EXISTS %I PARTITION OF device_state_history FOR VALUES FROM (%L) TO (%L)',
+        'device_state_history_' || to_char(first_day, 'YYYY_MM'),
+        first_day::timestamp AT TIME ZONE 'UTC',
+        (first_day + INTERVAL '1 month')::timestamp AT TIME ZONE 'UTC');
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT create_device_state_history_partition((date_trunc('month', now()) + make_interval(months => m))::date)
+FROM generate_series(-1, 3) AS m;
+
+-- Catches rows outside the pre-created months so inserts never fail; kept empty by the partition maintainer.
+CREATE TABLE IF NOT EXISTS device_state_history_default PARTITION OF device_state_history DEFAULT;
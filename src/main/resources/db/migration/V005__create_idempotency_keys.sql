@@ -0,0 +1,15 @@
+-- Results of POST /api/v1/devices calls made with an Idempotency-Key header.
+-- The response columns are a snapshot taken at creation so retries replay the original response.
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotency_key   VARCHAR(255) PRIMARY KEY,
+    request_hash      VARCHAR(64)  NOT NULL,
+    device_id         UUID         NOT NULL,
+    name              VARCHAR(100) NOT NULL,
+    brand             VARCHAR(50)  NOT NULL,
+    state             VARCHAR(20)  NOT NULL,
+    device_created_at TIMESTAMPTZ  NOT NULL,
+    created_at        TIMESTAMPTZ  NOT NULL DEFAULT NOW()
+);
+
+-- TTL cleanup
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_created_at ON idempotency_keys (created_at);
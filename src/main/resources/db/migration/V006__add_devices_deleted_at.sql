@@ -0,0 +1,22 @@
+-- Soft delete: deleted devices keep their row with deleted_at set until the background purger removes them.
+-- Runs outside a transaction (see the .sql.conf next to this file) so that the indexes are built without
+-- blocking writes. Adding a nullable column without a default only touches the catalog; lock_timeout keeps
+-- it from queueing writes behind a long transaction.
+SET lock_timeout = '2s';
+ALTER TABLE devices
+    ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMPTZ;
+RESET lock_timeout;
+
+-- Live devices only; tombstones never need to be found by brand or state. The partial indexes are built under
+-- new names before the full ones are dropped, so brand and state lookups are never without an index. A build
+-- that failed halfway leaves an INVALID index behind, which is dropped before building again.
+DROP INDEX CONCURRENTLY IF EXISTS idx_devices_live_brand;
+CREATE INDEX CONCURRENTLY idx_devices_live_brand ON devices (brand) WHERE deleted_at IS NULL;
+DROP INDEX CONCURRENTLY IF EXISTS idx_devices_live_state;
+CREATE INDEX CONCURRENTLY idx_devices_live_state ON devices (state) WHERE deleted_at IS NULL;
+DROP INDEX CONCURRENTLY IF EXISTS idx_devices_brand;
+DROP INDEX CONCURRENTLY IF EXISTS idx_devices_state;
+
+-- Purger backlog and oldest-first batches.
+DROP INDEX CONCURRENTLY IF EXISTS idx_devices_deleted_at;
+CREATE INDEX CONCURRENTLY idx_devices_deleted_at ON devices (deleted_at) WHERE deleted_at IS NOT NULL;
@@ -0,0 +1,4 @@
+-- Paged lists: ORDER BY created_at, device_id. Built without blocking writes (see the .sql.conf next to this
+-- file); a build that failed halfway leaves an INVALID index behind, which is dropped before building again.
+DROP INDEX CONCURRENTLY IF EXISTS idx_devices_created_at;
+CREATE INDEX CONCURRENTLY idx_devices_created_at ON devices (created_at, device_id) WHERE deleted_at IS NULL;
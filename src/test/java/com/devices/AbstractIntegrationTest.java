@@ -1,5 +1,6 @@
 package com.devices;
 
+import com.devices.service.DeviceCache;
 import io.restassured.RestAssured;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -21,6 +22,9 @@ public abstract class AbstractIntegrationTest {
     @Autowired
     protected JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private DeviceCache deviceCache;
+
     @BeforeEach
     void setUpRestAssured() {
         RestAssured.baseURI = "http://localhost";
@@ -30,6 +34,11 @@ public abstract class AbstractIntegrationTest {
     @AfterEach
     void cleanUpDatabase() {
         jdbcTemplate.execute("TRUNCATE TABLE devices RESTART IDENTITY CASCADE;");
+        jdbcTemplate.execute("TRUNCATE TABLE device_state_history;");
+        jdbcTemplate.execute("TRUNCATE TABLE idempotency_keys;");
+        jdbcTemplate.execute("TRUNCATE TABLE devices_archive;");
+        // the truncation bypasses the service, so nothing evicts what this test left in the cache
+        deviceCache.invalidateAll();
         RestAssured.reset();
     }
 }
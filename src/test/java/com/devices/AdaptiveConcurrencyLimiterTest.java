@@ -0,0 +1,83 @@
+package com.devices;
+
+import com.devices.api.AdaptiveConcurrencyLimiter;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(200);
+
+    @Test
+    void limitGrowsWhileLatencyIsStable() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 100, 0.2, 0.9, 0);
+
+        for (int i = 0; i < 200; i++) {
+            saturateAndRelease(limiter, FAST);
+        }
+
+        assertThat(limiter.getLimit()).isGreaterThan(10);
+    }
+
+    @Test
+    void limitShrinksWhenLatencyRises() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 2, 100, 0.2, 0.9, 0);
+        for (int i = 0; i < 100; i++) {
+            saturateAndRelease(limiter, FAST);
+        }
+        int limitBeforeSlowdown = limiter.getLimit();
+
+        for (int i = 0; i < 5; i++) {
+            saturateAndRelease(limiter, SLOW);
+        }
+
+        assertThat(limiter.getLimit()).isLessThan(limitBeforeSlowdown);
+    }
+
+    @Test
+    void droppedRequestsBackOffMultiplicatively() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100, 2, 100, 0.2, 0.5, 0);
+
+        assertThat(limiter.tryAcquire(true)).isTrue();
+        limiter.release(FAST, true);
+
+        assertThat(limiter.getLimit()).isEqualTo(50);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void rejectsRequestsAboveTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(3, 1, 10, 0.2, 0.9, 0);
+
+        assertThat(limiter.tryAcquire(true)).isTrue();
+        assertThat(limiter.tryAcquire(true)).isTrue();
+        assertThat(limiter.tryAcquire(true)).isTrue();
+        assertThat(limiter.tryAcquire(true)).isFalse();
+    }
+
+    @Test
+    void reservedShareIsOnlyAvailableToPrioritizedRequests() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 10, 0.2, 0.9, 0.5);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire(false)).isTrue();
+        }
+        assertThat(limiter.tryAcquire(false)).isFalse();
+        assertThat(limiter.tryAcquire(true)).isTrue();
+    }
+
+    private static void saturateAndRelease(AdaptiveConcurrencyLimiter limiter, long rttNanos) {
+        int admitted = 0;
+        while (limiter.tryAcquire(true)) {
+            admitted++;
+        }
+        for (int i = 0; i < admitted; i++) {
+            limiter.release(rttNanos, false);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.devices;
+
+import com.devices.api.AdaptiveConcurrencyLimiter;
+import com.devices.api.ConcurrencyLimitInterceptor;
+import com.devices.api.DeviceAdministrationController;
+import com.devices.api.ServiceOverloadedException;
+import com.devices.api.dto.CreateDeviceRequest;
+import com.devices.api.dto.DeviceLookupRequest;
+import com.devices.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConcurrencyLimitInterceptorTest {
+
+    @Test
+    void lookupHandlerIsPrioritizedAsARead() throws Exception {
+        // a limit of 2 with half of it reserved for reads: one request in flight leaves room for reads only
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 2, 2, 0.2, 0.9, 0.5);
+        ConcurrencyLimitInterceptor interceptor = new ConcurrencyLimitInterceptor(limiter, new ConcurrencyLimitProperties(
+                true, 2, 2, 2, 0.2, 0.9, ConcurrencyLimitProperties.Priority.READS, 0.5,
+                Duration.ofSeconds(1), HttpStatus.SERVICE_UNAVAILABLE), new SimpleMeterRegistry());
+        assertThat(limiter.tryAcquire(false)).isTrue();
+
+        HandlerMethod create = new HandlerMethod(new Object(),
+                DeviceAdministrationController.class.getMethod("createDevice", CreateDeviceRequest.class, String.class));
+        assertThatThrownBy(() -> interceptor.preHandle(post("/api/v1/devices"), new MockHttpServletResponse(), create)).
+                isInstanceOf(ServiceOverloadedException.class);
+
+        HandlerMethod lookup = new HandlerMethod(new Object(),
+                DeviceAdministrationController.class.getMethod("lookupDevices", DeviceLookupRequest.class));
+        assertThat(interceptor.preHandle(post("/api/v1/devices/lookup"), new MockHttpServletResponse(), lookup)).isTrue();
+    }
+
+    private static MockHttpServletRequest post(String uri) {
+        return new MockHttpServletRequest("POST", uri);
+    }
+}
@@ -0,0 +1,158 @@
+package com.devices;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.jdbc.autoconfigure.JdbcConnectionDetails;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Runs a second instance of the application against the same database and checks that writes made on this
+ * instance evict what the second one has cached.
+ */
+class DeviceCacheCoherenceTest extends AbstractIntegrationTest {
+
+    private static final Duration MAX_STALENESS = Duration.ofSeconds(3);
+
+    private static final String SECOND_NODE = "devices-api-node-b";
+
+    private static final String SECOND_NODE_LISTENER = SECOND_NODE + " change listener";
+
+    @Autowired
+    private JdbcConnectionDetails connectionDetails;
+
+    @Test
+    void writeOnOneNodeEvictsTheDeviceCachedOnAnother() {
+        try (ConfigurableApplicationContext secondNode = startSecondNode()) {
+            int secondPort = port(secondNode);
+            String id = createDevice("Thermostat");
+
+            assertThat(nameOn(secondPort, id)).isEqualTo("Thermostat");
+            assertThat(nameOn(secondPort, id)).isEqualTo("Thermostat");
+            assertThat(cacheHits(secondNode)).isPositive();
+
+            rename(id, "Renamed Thermostat");
+
+            awaitWithinStalenessBound(() -> "Renamed Thermostat".equals(nameOn(secondPort, id)));
+        }
+    }
+
+    @Test
+    void nodeThatMissedNotificationsStartsWithAnEmptyCacheAfterReconnecting() {
+        try (ConfigurableApplicationContext secondNode = startSecondNode()) {
+            int secondPort = port(secondNode);
+            String id = createDevice("Camera");
+            assertThat(nameOn(secondPort, id)).isEqualTo("Camera");
+
+            int listenerPid = listenerPid();
+            jdbcTemplate.queryForObject("SELECT pg_terminate_backend(?, 5000)", Boolean.class, listenerPid);
+            rename(id, "Renamed Camera");
+            awaitWithinStalenessBound(() -> {
+                List<Integer> pids = listenerPids();
+                return !pids.isEmpty() && !pids.contains(listenerPid);
+            });
+
+            assertThat(nameOn(secondPort, id)).isEqualTo("Renamed Camera");
+        }
+    }
+
+    private ConfigurableApplicationContext startSecondNode() {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(DeviceManagementApplication.class).
+                profiles("test").
+                properties(
+                        "spring.application.name=" + SECOND_NODE,
+                        "server.port=0",
+                        "testcontainers.enabled=false",
+                        "spring.flyway.enabled=false",
+                        "spring.datasource.url=" + connectionDetails.getJdbcUrl(),
+                        "spring.datasource.username=" + connectionDetails.getUsername(),
+                        "spring.datasource.password=" + connectionDetails.getPassword()
+                ).
+                run();
+        awaitWithinStalenessBound(() -> !listenerPids().isEmpty());
+        return context;
+    }
+
+    private int listenerPid() {
+        List<Integer> pids = listenerPids();
+        assertThat(pids).hasSize(1);
+        return pids.getFirst();
+    }
+
+    private List<Integer> listenerPids() {
+        return jdbcTemplate.queryForList(
+                "SELECT pid FROM pg_stat_activity WHERE application_name = ?", Integer.class, SECOND_NODE_LISTENER);
+    }
+
+    private static int port(ConfigurableApplicationContext context) {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    private static double cacheHits(ConfigurableApplicationContext context) {
+        return context.getBean(MeterRegistry.class).get("devices.cache.hits").functionCounter().count();
+    }
+
+    private static String createDevice(String name) {
+        return given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        {"name": "%s", "brand": "Nest"}
+                        """.formatted(name))
+                .when()
+                .post("/api/v1/devices")
+                .then()
+                .statusCode(201)
+                .extract()
+                .jsonPath()
+                .getString("id");
+    }
+
+    private static void rename(String id, String name) {
+        given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        {"name": "%s"}
+                        """.formatted(name))
+                .when()
+                .patch("/api/v1/devices/" + id)
+                .then()
+                .statusCode(200);
+    }
+
+    private static String nameOn(int port, String id) {
+        return given()
+                .port(port)
+                .when()
+                .get("/api/v1/devices/" + id)
+                .then()
+                .statusCode(200)
+                .extract()
+                .jsonPath()
+                .getString("name");
+    }
+
+    private static void awaitWithinStalenessBound(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + MAX_STALENESS.toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() - deadline > 0) {
+                fail("Condition not met within " + MAX_STALENESS);
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("Interrupted");
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.devices;
+
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+
+class DeviceClaimTest extends AbstractIntegrationTest {
+
+    @Test
+    void shouldClaimAvailableDevicesOfTheRequestedBrand() {
+        seedAvailableDevices("Nest", 3);
+        seedAvailableDevices("Apple", 3);
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        {"count": 2, "brand": "Nest"}
+                        """)
+                .when()
+                .post("/api/v1/devices/claim")
+                .then()
+                .statusCode(200)
+                .contentType(ContentType.JSON)
+                .body("size()", equalTo(2))
+                .body("brand", everyItem(equalTo("Nest")))
+                .body("state", everyItem(equalTo("IN_USE")));
+
+        Integer inUse = jdbcTemplate.queryForObject("SELECT count(*) FROM devices WHERE state = 'IN_USE'", Integer.class);
+        assertThat(inUse).isEqualTo(2);
+    }
+
+    @Test
+    void shouldReturnFewerDevicesWhenNotEnoughAreAvailable() {
+        seedAvailableDevices("Nest", 1);
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        {"count": 5}
+                        """)
+                .when()
+                .post("/api/v1/devices/claim")
+                .then()
+                .statusCode(200)
+                .body("size()", equalTo(1));
+    }
+
+    @Test
+    void shouldRejectInvalidClaimCount() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        {"count": 0}
+                        """)
+                .when()
+                .post("/api/v1/devices/claim")
+                .then()
+                .statusCode(400)
+                .body("errors[0].field", equalTo("count"));
+    }
+
+    @Test
+    void concurrentClaimersReceiveDistinctDevices() throws Exception {
+        int claimers = 40;
+        seedAvailableDevices("Nest", claimers);
+        CyclicBarrier start = new CyclicBarrier(claimers);
+
+        List<String> claimed = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(claimers)) {
+            List<Future<List<String>>> futures = new ArrayList<>();
+            for (int i = 0; i < claimers; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return given()
+                            .contentType(ContentType.JSON)
+                            .body("""
+                                    {"count": 1}
+                                    """)
+                            .when()
+                            .post("/api/v1/devices/claim")
+                            .then()
+                            .statusCode(200)
+                            .extract()
+                            .jsonPath()
+                            .getList("id", String.class);
+                }));
+            }
+            for (Future<List<String>> future : futures) {
+                claimed.addAll(future.get());
+            }
+        }
+
+        Set<String> distinct = new HashSet<>(claimed);
+        assertThat(claimed).hasSize(claimers);
+        assertThat(distinct).hasSize(claimers);
+    }
+
+    private void seedAvailableDevices(String brand, int count) {
+        jdbcTemplate.update("""
+                INSERT INTO devices (device_id, name, brand, state, created_at, version)
+                SELECT gen_random_uuid(), 'Device ' || g, ?, 'AVAILABLE', now(), 0
+                FROM generate_series(1, ?) g
+                """, brand, count);
+    }
+}
@@ -0,0 +1,79 @@
+package com.devices;
+
+import com.devices.config.ReadWriteDataSource;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+
+@TestPropertySource(properties = {
+        "spring.datasource.hikari.connection-timeout=500",
+        "devices.connection-pool.read-connection-timeout=500ms",
+        "devices.connection-pool.retry-after=2s"
+})
+class DeviceConnectionPoolTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void readOnlyTransactionsUseTheReadPool() {
+        ReadWriteDataSource pools = dataSource.unwrap(ReadWriteDataSource.class);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        Integer active = readOnly.execute(status -> {
+            jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+            return pools.getReadPool().getHikariPoolMXBean().getActiveConnections();
+        });
+
+        assertThat(active).isEqualTo(1);
+        assertThat(pools.getReadPool().getPoolName()).isEqualTo("devices-read");
+        assertThat(pools.getWritePool().getPoolName()).isEqualTo("devices-write");
+    }
+
+    @Test
+    void exhaustedWritePoolFailsFastWithoutBlockingReads() throws SQLException {
+        ReadWriteDataSource pools = dataSource.unwrap(ReadWriteDataSource.class);
+        List<Connection> held = new ArrayList<>();
+        try {
+            for (int i = 0; i < pools.getWritePool().getMaximumPoolSize(); i++) {
+                held.add(pools.getWritePool().getConnection());
+            }
+
+            given()
+                    .contentType(ContentType.JSON)
+                    .body("""
+                            {"name": "Thermostat", "brand": "Nest"}
+                            """)
+                    .when()
+                    .post("/api/v1/devices")
+                    .then()
+                    .time(lessThan(5_000L))
+                    .statusCode(503)
+                    .header("Retry-After", "2")
+                    .body("title", equalTo("Service Overloaded"));
+            given().when().get("/api/v1/devices").then().statusCode(200);
+        } finally {
+            for (Connection connection : held) {
+                connection.close();
+            }
+        }
+    }
+}
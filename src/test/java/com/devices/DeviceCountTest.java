@@ -0,0 +1,97 @@
+package com.devices;
+
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.matchesPattern;
+
+class DeviceCountTest extends AbstractIntegrationTest {
+
+    @BeforeEach
+    void createDevices() {
+        createDevice("Thermostat", "Nest");
+        createDevice("Camera", "Nest");
+        createDevice("Doorbell", "Ring");
+    }
+
+    @Test
+    void listCarriesTheNumberOfReturnedDevices() {
+        given()
+                .queryParam("brand", "Nest")
+                .when()
+                .get("/api/v1/devices")
+                .then()
+                .statusCode(200)
+                .header("X-Total-Count", "2")
+                .header("X-Total-Count-Accuracy", "exact")
+                .body("$", hasSize(2));
+    }
+
+    @Test
+    void headCountsWithoutABody() {
+        given()
+                .queryParam("brand", "Nest")
+                .queryParam("count", "EXACT")
+                .when()
+                .head("/api/v1/devices")
+                .then()
+                .statusCode(200)
+                .header("X-Total-Count", "2")
+                .header("X-Total-Count-Accuracy", "exact")
+                .body(equalTo(""));
+    }
+
+    @Test
+    void smallResultsAreCountedExactlyInAutoMode() {
+        jdbcTemplate.execute("ANALYZE devices");
+
+        given()
+                .queryParam("name", "cam")
+                .when()
+                .head("/api/v1/devices")
+                .then()
+                .statusCode(200)
+                .header("X-Total-Count", "1")
+                .header("X-Total-Count-Accuracy", "exact");
+    }
+
+    @Test
+    void estimatedModeReturnsThePlannerEstimate() {
+        jdbcTemplate.execute("ANALYZE devices");
+
+        given()
+                .queryParam("count", "ESTIMATED")
+                .when()
+                .head("/api/v1/devices")
+                .then()
+                .statusCode(200)
+                .header("X-Total-Count", matchesPattern("\\d+"))
+                .header("X-Total-Count-Accuracy", "estimated");
+    }
+
+    @Test
+    void unknownCountModeIsRejected() {
+        given()
+                .queryParam("count", "SOMETIMES")
+                .when()
+                .head("/api/v1/devices")
+                .then()
+                .statusCode(400);
+    }
+
+    private static void createDevice(String name, String brand) {
+        given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        {"name": "%s", "brand": "%s"}
+                        """.formatted(name, brand))
+                .when()
+                .post("/api/v1/devices")
+                .then()
+                .statusCode(201);
+    }
+}
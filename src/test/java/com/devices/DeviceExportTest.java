@@ -0,0 +1,75 @@
+package com.devices;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+
+class DeviceExportTest extends AbstractIntegrationTest {
+
+    @Test
+    void shouldExportAllDevicesAsCsv() {
+        jdbcTemplate.update("""
+                INSERT INTO devices (device_id, name, brand, state, created_at, version) VALUES
+                ('00000000-0000-0000-0000-000000000001', 'Thermostat', 'Nest', 'AVAILABLE', '2025-01-01T12:00:00Z', 0),
+                ('00000000-0000-0000-0000-000000000002', 'Camera, "Outdoor"', 'Nest', 'IN_USE', '2025-01-02T08:30:00.5Z', 0)
+                """);
+
+        String csv = given()
+                .when()
+                .get("/api/v1/devices/export")
+                .then()
+                .statusCode(200)
+                .contentType(containsString("text/csv"))
+                .extract()
+                .asString();
+
+        assertThat(lines(csv)).containsExactlyInAnyOrder(
+                "id,name,brand,state,creationTime",
+                "00000000-0000-0000-0000-000000000001,Thermostat,Nest,AVAILABLE,2025-01-01T12:00:00.000000Z",
+                "00000000-0000-0000-0000-000000000002,\"Camera, \"\"Outdoor\"\"\",Nest,IN_USE,2025-01-02T08:30:00.500000Z");
+    }
+
+    @Test
+    void shouldApplyFiltersWithoutInterpretingThemAsSql() {
+        jdbcTemplate.update("""
+                INSERT INTO devices (device_id, name, brand, state, created_at, version) VALUES
+                (gen_random_uuid(), 'Thermostat', 'Nest', 'AVAILABLE', now(), 0),
+                (gen_random_uuid(), 'Smart Thermostat', 'O''Brien', 'AVAILABLE', now(), 0),
+                (gen_random_uuid(), 'Thermostat', 'O''Brien', 'INACTIVE', now(), 0)
+                """);
+
+        String csv = given()
+                .queryParam("brand", "O'Brien")
+                .queryParam("name", "smart")
+                .queryParam("status", "AVAILABLE")
+                .when()
+                .get("/api/v1/devices/export")
+                .then()
+                .statusCode(200)
+                .extract()
+                .asString();
+
+        assertThat(lines(csv)).hasSize(2);
+        assertThat(lines(csv).get(1)).contains(",Smart Thermostat,O'Brien,AVAILABLE,");
+
+        String injected = given()
+                .queryParam("brand", "x' OR '1'='1")
+                .when()
+                .get("/api/v1/devices/export")
+                .then()
+                .statusCode(200)
+                .extract()
+                .asString();
+
+        assertThat(lines(injected)).containsExactly("id,name,brand,state,creationTime");
+    }
+
+    private static List<String> lines(String csv) {
+        return Arrays.asList(csv.split("\n"));
+    }
+}
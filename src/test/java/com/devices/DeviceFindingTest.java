@@ -226,4 +226,71 @@ class DeviceFindingTest extends AbstractIntegrationTest {
                 .body("id", everyItem(notNullValue()))
                 .body("creationTime", everyItem(notNullValue()));
     }
+
+    @Test
+    void shouldPageDevicesInCreationOrder() {
+        for (String name : new String[]{"Thermostat", "Camera", "Doorbell", "Speaker", "Hub"}) {
+            given()
+                    .contentType(ContentType.JSON)
+                    .body("""
+                            {"name": "%s", "brand": "Nest"}
+                            """.formatted(name))
+                    .when()
+                    .post("/api/v1/devices")
+                    .then()
+                    .statusCode(201);
+        }
+
+        given()
+                .noContentType()
+                .when()
+                .get("/api/v1/devices?size={size}&page={page}", 2, 1)
+                .then()
+                .statusCode(200)
+                .header("X-Total-Count", "5")
+                .header("X-Total-Count-Accuracy", "exact")
+                .body("name", contains("Doorbell", "Speaker"));
+
+        given()
+                .noContentType()
+                .when()
+                .get("/api/v1/devices?size={size}&count={count}", 2, "ESTIMATED")
+                .then()
+                .statusCode(200)
+                .header("X-Total-Count-Accuracy", "estimated")
+                .body("name", contains("Thermostat", "Camera"));
+
+        given()
+                .noContentType()
+                .when()
+                .get("/api/v1/devices?size={size}", 0)
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    void shouldRejectPagesOutOfRange() {
+        given()
+                .noContentType()
+                .when()
+                .get("/api/v1/devices?size={size}&page={page}", 1000, Integer.MAX_VALUE)
+                .then()
+                .statusCode(400);
+
+        // INACTIVE lists merge the archive, so their pages are cut in memory and have a bounded depth
+        given()
+                .noContentType()
+                .when()
+                .get("/api/v1/devices?status=INACTIVE&size={size}&page={page}", 1000, 10)
+                .then()
+                .statusCode(400);
+
+        given()
+                .noContentType()
+                .when()
+                .get("/api/v1/devices?size={size}&page={page}", 1000, 10)
+                .then()
+                .statusCode(200)
+                .body("", hasSize(0));
+    }
 }
@@ -0,0 +1,109 @@
+package com.devices;
+
+import io.restassured.http.ContentType;
+import io.restassured.response.ValidatableResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class DeviceIdempotencyTest extends AbstractIntegrationTest {
+
+    private static final String PAYLOAD = """
+            {"name": "Thermostat", "brand": "Nest"}
+            """;
+
+    @Test
+    void retriesWithTheSameKeyReturnTheOriginalDevice() {
+        String key = UUID.randomUUID().toString();
+
+        String firstId = create(key, PAYLOAD).statusCode(201).extract().jsonPath().getString("id");
+        String retriedId = create(key, PAYLOAD).statusCode(201).extract().jsonPath().getString("id");
+
+        assertThat(retriedId).isEqualTo(firstId);
+        assertThat(deviceCount()).isEqualTo(1);
+    }
+
+    @Test
+    void retriesAreReplayedFromTheDatabaseWhenNotCached() {
+        String key = UUID.randomUUID().toString();
+        String deviceId = UUID.randomUUID().toString();
+        jdbcTemplate.update("""
+                INSERT INTO idempotency_keys (idempotency_key, request_hash, device_id, name, brand, state, device_created_at)
+                VALUES (?, encode(sha256(convert_to('Thermostat', 'UTF8') || '\\x00'::bytea || convert_to('Nest', 'UTF8')), 'hex'),
+                        ?::uuid, 'Thermostat', 'Nest', 'AVAILABLE', now())
+                """, key, deviceId);
+
+        create(key, PAYLOAD).statusCode(201).body("id", equalTo(deviceId));
+
+        assertThat(deviceCount()).isZero();
+    }
+
+    @Test
+    void reusingAKeyWithADifferentPayloadIsRejected() {
+        String key = UUID.randomUUID().toString();
+        create(key, PAYLOAD).statusCode(201);
+
+        create(key, """
+                {"name": "Camera", "brand": "Nest"}
+                """)
+                .statusCode(422)
+                .body("errorCode", equalTo("IDEMPOTENCY_KEY_REUSED"));
+    }
+
+    @Test
+    void concurrentDuplicatesCreateOneDevice() throws Exception {
+        String key = UUID.randomUUID().toString();
+        int clients = 16;
+        CyclicBarrier start = new CyclicBarrier(clients);
+        List<Future<String>> futures = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(clients)) {
+            for (int i = 0; i < clients; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return create(key, PAYLOAD).statusCode(201).extract().jsonPath().getString("id");
+                }));
+            }
+            Set<String> ids = new HashSet<>();
+            for (Future<String> future : futures) {
+                ids.add(future.get());
+            }
+            assertThat(ids).hasSize(1);
+        }
+        assertThat(deviceCount()).isEqualTo(1);
+    }
+
+    @Test
+    void requestsWithoutKeyAreNotDeduplicated() {
+        given().contentType(ContentType.JSON).body(PAYLOAD).when().post("/api/v1/devices").then().statusCode(201);
+        given().contentType(ContentType.JSON).body(PAYLOAD).when().post("/api/v1/devices").then().statusCode(201);
+
+        assertThat(deviceCount()).isEqualTo(2);
+    }
+
+    private static ValidatableResponse create(String key, String payload) {
+        return given()
+                .contentType(ContentType.JSON)
+                .header("Idempotency-Key", key)
+                .body(payload)
+                .when()
+                .post("/api/v1/devices")
+                .then();
+    }
+
+    private Integer deviceCount() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM devices", Integer.class);
+    }
+}
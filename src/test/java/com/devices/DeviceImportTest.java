@@ -0,0 +1,77 @@
+package com.devices;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+
+class DeviceImportTest extends AbstractIntegrationTest {
+
+    @Test
+    void shouldImportValidRowsAndReportRejectedOnes() {
+        String csv = """
+                name,brand,state
+                Thermostat,Nest,IN_USE
+                "Camera, Outdoor",Nest,
+                "Speaker ""Mini""",Apple
+                ,Nest,AVAILABLE
+                Doorbell,Ring,BROKEN
+                Lamp
+                """;
+
+        given()
+                .contentType("text/csv")
+                .body(csv)
+                .when()
+                .post("/api/v1/devices/import")
+                .then()
+                .statusCode(200)
+                .body("imported", equalTo(3))
+                .body("rejected", equalTo(3))
+                .body("rejectedRowsTruncated", equalTo(false))
+                .body("rejectedRows.line", contains(5, 6, 7))
+                .body("rejectedRows[0].errors", hasItem("Device name must not be blank"))
+                .body("rejectedRows[1].errors", hasItem("Invalid device state: BROKEN"));
+
+        List<Map<String, Object>> devices = jdbcTemplate.queryForList(
+                "SELECT name, brand, state, version FROM devices ORDER BY name");
+        assertThat(devices).extracting(device -> device.get("name")).
+                containsExactly("Camera, Outdoor", "Speaker \"Mini\"", "Thermostat");
+        assertThat(devices).extracting(device -> device.get("state")).
+                containsExactly("AVAILABLE", "AVAILABLE", "IN_USE");
+        assertThat(devices).extracting(device -> device.get("version")).containsOnly(0L);
+    }
+
+    @Test
+    void shouldImportWithoutHeaderAndWithQuotedLineBreaks() {
+        String csv = "Thermostat,Nest\r\n\"Multi\nLine\",Apple\r\nCamera,Ring\r\n" + "x".repeat(101) + ",Nest\r\n";
+
+        given()
+                .contentType("text/csv")
+                .body(csv)
+                .when()
+                .post("/api/v1/devices/import")
+                .then()
+                .statusCode(200)
+                .body("imported", equalTo(3))
+                .body("rejectedRows[0].line", equalTo(5))
+                .body("rejectedRows[0].errors", contains("Device name must not exceed 100 characters"));
+    }
+
+    @Test
+    void shouldRejectNonCsvBody() {
+        given()
+                .contentType("application/json")
+                .body("[]")
+                .when()
+                .post("/api/v1/devices/import")
+                .then()
+                .statusCode(415);
+    }
+}
@@ -0,0 +1,74 @@
+package com.devices;
+
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+
+@TestPropertySource(properties = "devices.lookup.max-ids=3")
+class DeviceLookupTest extends AbstractIntegrationTest {
+
+    @Test
+    void shouldReturnFoundDevicesInRequestOrderAndListMissingIds() {
+        String first = createDevice("Thermostat");
+        String second = createDevice("Camera");
+        String missing = UUID.randomUUID().toString();
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        {"ids": ["%s", "%s", "%s", "%s"]}
+                        """.formatted(second, missing, first, second))
+                .when()
+                .post("/api/v1/devices/lookup")
+                .then()
+                .statusCode(200)
+                .body("devices.id", contains(second, first))
+                .body("devices.name", contains("Camera", "Thermostat"))
+                .body("missingIds", contains(missing));
+    }
+
+    @Test
+    void shouldRejectEmptyAndOversizedLookups() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        {"ids": []}
+                        """)
+                .when()
+                .post("/api/v1/devices/lookup")
+                .then()
+                .statusCode(400)
+                .body("errors[0].field", equalTo("ids"));
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        {"ids": ["%s", "%s", "%s", "%s"]}
+                        """.formatted(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()))
+                .when()
+                .post("/api/v1/devices/lookup")
+                .then()
+                .statusCode(400);
+    }
+
+    private static String createDevice(String name) {
+        return given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        {"name": "%s", "brand": "Nest"}
+                        """.formatted(name))
+                .when()
+                .post("/api/v1/devices")
+                .then()
+                .statusCode(201)
+                .extract()
+                .jsonPath()
+                .getString("id");
+    }
+}
@@ -0,0 +1,115 @@
+package com.devices;
+
+import com.devices.api.dto.CreateDeviceRequest;
+import com.devices.api.dto.DeviceFilterRequest;
+import com.devices.api.dto.DeviceResponse;
+import com.devices.api.dto.PatchDeviceRequest;
+import com.devices.domain.DeviceStatus;
+import com.devices.service.DeviceService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeviceReadCoalescingTest extends AbstractIntegrationTest {
+
+    private static final int CLIENTS = 64;
+
+    @Autowired
+    private DeviceService deviceService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void concurrentReadsOfTheSameDeviceShareQueries() throws Exception {
+        DeviceResponse created = deviceService.create(new CreateDeviceRequest("Thermostat", "Nest"));
+        statistics.clear();
+
+        List<DeviceResponse> results = thunderingHerd(() -> deviceService.findById(created.id()));
+
+        assertThat(results).hasSize(CLIENTS).allSatisfy(device -> assertThat(device).isEqualTo(created));
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(CLIENTS);
+    }
+
+    @Test
+    void concurrentIdenticalFilterReadsShareQueries() throws Exception {
+        deviceService.create(new CreateDeviceRequest("Thermostat", "Nest"));
+        deviceService.create(new CreateDeviceRequest("Camera", "Nest"));
+        DeviceFilterRequest filter = new DeviceFilterRequest("Nest", null, DeviceStatus.AVAILABLE, null, null);
+        statistics.clear();
+
+        List<List<DeviceResponse>> results = thunderingHerd(() -> deviceService.findDevices(filter));
+
+        assertThat(results).hasSize(CLIENTS).allSatisfy(devices -> assertThat(devices).hasSize(2));
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(CLIENTS);
+    }
+
+    @Test
+    void readsThatStartAfterAWriteSeeIt() throws Exception {
+        DeviceResponse created = deviceService.create(new CreateDeviceRequest("Thermostat", "Nest"));
+        AtomicBoolean writing = new AtomicBoolean(true);
+
+        try (ExecutorService readers = Executors.newFixedThreadPool(8)) {
+            List<Future<?>> load = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                load.add(readers.submit(() -> {
+                    while (writing.get()) {
+                        deviceService.findById(created.id());
+                    }
+                }));
+            }
+            try {
+                for (int i = 0; i < 100; i++) {
+                    String name = "Thermostat " + i;
+                    deviceService.updatePartial(created.id(), new PatchDeviceRequest(name, null, null));
+                    assertThat(deviceService.findById(created.id()).name()).isEqualTo(name);
+                }
+            } finally {
+                writing.set(false);
+            }
+            for (Future<?> reader : load) {
+                reader.get();
+            }
+        }
+    }
+
+    private static <T> List<T> thunderingHerd(Callable<T> read) throws Exception {
+        CyclicBarrier start = new CyclicBarrier(CLIENTS);
+        try (ExecutorService executor = Executors.newFixedThreadPool(CLIENTS)) {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return read.call();
+                }));
+            }
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        }
+    }
+}
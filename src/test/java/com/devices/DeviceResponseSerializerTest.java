@@ -0,0 +1,57 @@
+package com.devices;
+
+import com.devices.api.DeviceResponseSerializer;
+import com.devices.api.dto.DeviceResponse;
+import com.devices.domain.DeviceStatus;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.module.SimpleModule;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeviceResponseSerializerTest {
+
+    private final JsonMapper defaultMapper = JsonMapper.builder().build();
+
+    private final JsonMapper customMapper = JsonMapper.builder().
+            addModule(new SimpleModule().addSerializer(DeviceResponse.class, new DeviceResponseSerializer())).
+            build();
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "2025-01-01T12:00:00Z",
+            "2025-01-01T12:00:00.120Z",
+            "2025-02-28T23:59:59.123456Z",
+            "2024-02-29T00:00:00.000000001Z",
+            "1969-12-31T23:59:59.999999999Z",
+            "0001-01-01T00:00:00Z",
+            "+10000-01-01T00:00:00Z"
+    })
+    void writesTheSameJsonAsTheDefaultSerializer(String creationTime) {
+        DeviceResponse device = new DeviceResponse(UUID.randomUUID(), "Camera \"Outdoor\" é", "Nest",
+                DeviceStatus.IN_USE, Instant.parse(creationTime));
+
+        String json = customMapper.writeValueAsString(device);
+
+        assertThat(customMapper.readTree(json)).isEqualTo(defaultMapper.readTree(defaultMapper.writeValueAsString(device)));
+        assertThat(json).contains("\"creationTime\":\"" + Instant.parse(creationTime) + "\"");
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void writesListsAndNulls(boolean withNulls) {
+        List<DeviceResponse> devices = List.of(
+                new DeviceResponse(UUID.randomUUID(), "Thermostat", "Nest", DeviceStatus.AVAILABLE, Instant.now()),
+                withNulls
+                        ? new DeviceResponse(null, null, null, null, null)
+                        : new DeviceResponse(UUID.randomUUID(), "Lamp", "Philips", DeviceStatus.INACTIVE, Instant.EPOCH));
+
+        assertThat(customMapper.readTree(customMapper.writeValueAsString(devices))).
+                isEqualTo(defaultMapper.readTree(defaultMapper.writeValueAsString(devices)));
+    }
+}
@@ -0,0 +1,183 @@
+package com.devices;
+
+import com.devices.service.DeviceInventory;
+import com.devices.sharding.ShardRouter;
+import com.devices.sharding.ShardRoutingDataSource;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+
+class DeviceShardingTest extends AbstractIntegrationTest {
+
+    private static final List<PostgreSQLContainer> EXTRA_SHARDS = List.of(
+            new PostgreSQLContainer(DockerImageName.parse("postgres:15.15-alpine3.22")),
+            new PostgreSQLContainer(DockerImageName.parse("postgres:15.15-alpine3.22"))
+    );
+
+    @DynamicPropertySource
+    static void shards(DynamicPropertyRegistry registry) {
+        registry.add("devices.sharding.enabled", () -> "true");
+        // the cache is only kept coherent on shard 0, so sharding refuses to start with it
+        registry.add("devices.cache.enabled", () -> "false");
+        for (int i = 0; i < EXTRA_SHARDS.size(); i++) {
+            PostgreSQLContainer shard = EXTRA_SHARDS.get(i);
+            shard.start();
+            registry.add("devices.sharding.shards[%d].url".formatted(i), shard::getJdbcUrl);
+            registry.add("devices.sharding.shards[%d].username".formatted(i), shard::getUsername);
+            registry.add("devices.sharding.shards[%d].password".formatted(i), shard::getPassword);
+        }
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private DeviceInventory deviceInventory;
+
+    @AfterEach
+    void cleanUpExtraShards() {
+        for (JdbcTemplate shard : shardTemplates().subList(1, shardRouter.shardCount())) {
+            shard.execute("TRUNCATE TABLE devices RESTART IDENTITY CASCADE;");
+            shard.execute("TRUNCATE TABLE idempotency_keys;");
+            shard.execute("TRUNCATE TABLE devices_archive;");
+        }
+    }
+
+    @Test
+    void devicesAreStoredOnTheShardTheirIdHashesTo() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            ids.add(createDevice("Device " + i, "Nest"));
+        }
+
+        List<JdbcTemplate> shards = shardTemplates();
+        assertThat(shards).hasSize(3);
+        long stored = 0;
+        for (int shard = 0; shard < shards.size(); shard++) {
+            List<String> onShard = shards.get(shard).queryForList("SELECT device_id::text FROM devices", String.class);
+            assertThat(onShard).isNotEmpty();
+            for (String id : onShard) {
+                assertThat(shardRouter.shardOf(UUID.fromString(id))).isEqualTo(shard);
+            }
+            stored += onShard.size();
+        }
+        assertThat(stored).isEqualTo(ids.size());
+    }
+
+    @Test
+    void singleDeviceOperationsFindTheDeviceOnItsShard() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            ids.add(createDevice("Device " + i, "Nest"));
+        }
+
+        for (String id : ids) {
+            given().when().get("/api/v1/devices/" + id).then().statusCode(200).body("id", equalTo(id));
+            given()
+                    .contentType(ContentType.JSON)
+                    .body("""
+                            {"state": "IN_USE"}
+                            """)
+                    .when()
+                    .patch("/api/v1/devices/" + id)
+                    .then()
+                    .statusCode(200)
+                    .body("state", equalTo("IN_USE"));
+        }
+        given().when().delete("/api/v1/devices/" + ids.getFirst()).then().statusCode(204);
+        given().when().get("/api/v1/devices/" + ids.getFirst()).then().statusCode(404);
+
+        given()
+                .when()
+                .get("/api/v1/devices?status=IN_USE")
+                .then()
+                .statusCode(200)
+                .body("size()", equalTo(ids.size() - 1));
+    }
+
+    @Test
+    void pagesAreCutFromAllShardsInCreationOrder() {
+        for (int i = 0; i < 10; i++) {
+            createDevice("Device " + i, "Nest");
+        }
+
+        given()
+                .when()
+                .get("/api/v1/devices?brand=Nest&size=4&page=1")
+                .then()
+                .statusCode(200)
+                .header("X-Total-Count", "10")
+                .body("name", contains("Device 4", "Device 5", "Device 6", "Device 7"));
+    }
+
+    @Test
+    void statsAndCountsCoverEveryShard() {
+        for (int i = 0; i < 9; i++) {
+            createDevice("Device " + i, i % 3 == 0 ? "Ring" : "Nest");
+        }
+        deviceInventory.reconcile();
+
+        given().when().head("/api/v1/devices?brand=Nest&count=EXACT").then().header("X-Total-Count", "6");
+        given()
+                .when()
+                .get("/api/v1/devices/stats")
+                .then()
+                .statusCode(200)
+                .body("total", equalTo(9))
+                .body("brands.brand", contains("Nest", "Ring"));
+    }
+
+    @Test
+    void csvImportIsRejected() {
+        given()
+                .contentType("text/csv")
+                .body("name,brand\nThermostat,Nest\n")
+                .when()
+                .post("/api/v1/devices/import")
+                .then()
+                .statusCode(400);
+    }
+
+    private List<JdbcTemplate> shardTemplates() {
+        try {
+            return dataSource.unwrap(ShardRoutingDataSource.class).getShards().stream().map(JdbcTemplate::new).toList();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String createDevice(String name, String brand) {
+        return given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        {"name": "%s", "brand": "%s"}
+                        """.formatted(name, brand))
+                .when()
+                .post("/api/v1/devices")
+                .then()
+                .statusCode(201)
+                .extract()
+                .jsonPath()
+                .getString("id");
+    }
+}
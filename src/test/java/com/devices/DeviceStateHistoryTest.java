@@ -0,0 +1,123 @@
+package com.devices;
+
+import com.devices.service.DeviceStateHistoryRecorder;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+class DeviceStateHistoryTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private DeviceStateHistoryRecorder stateHistoryRecorder;
+
+    @Test
+    void shouldRecordTransitionsAndPageThroughThemNewestFirst() {
+        String deviceId = createDevice();
+        send("PATCH", deviceId, """
+                {"state": "IN_USE"}
+                """);
+        send("PATCH", deviceId, """
+                {"state": "IN_USE"}
+                """);
+        send("PUT", deviceId, """
+                {"name": "Thermostat", "brand": "Nest", "state": "INACTIVE"}
+                """);
+        given()
+                .when()
+                .delete("/api/v1/devices/{id}", deviceId)
+                .then()
+                .statusCode(204);
+        stateHistoryRecorder.flush();
+
+        String nextCursor = given()
+                .queryParam("limit", 2)
+                .when()
+                .get("/api/v1/devices/{id}/history", deviceId)
+                .then()
+                .statusCode(200)
+                .body("changes.fromState", contains("INACTIVE", "IN_USE"))
+                .body("changes.toState", contains(null, "INACTIVE"))
+                .body("nextCursor", notNullValue())
+                .extract()
+                .jsonPath()
+                .getString("nextCursor");
+
+        given()
+                .queryParam("limit", 2)
+                .queryParam("cursor", nextCursor)
+                .when()
+                .get("/api/v1/devices/{id}/history", deviceId)
+                .then()
+                .statusCode(200)
+                .body("changes.fromState", contains("AVAILABLE"))
+                .body("changes.toState", contains("IN_USE"))
+                .body("nextCursor", nullValue());
+    }
+
+    @Test
+    void shouldNotRecordUpdatesThatKeepTheState() {
+        String deviceId = createDevice();
+        send("PATCH", deviceId, """
+                {"name": "Renamed"}
+                """);
+        stateHistoryRecorder.flush();
+
+        given()
+                .when()
+                .get("/api/v1/devices/{id}/history", deviceId)
+                .then()
+                .statusCode(200)
+                .body("changes.size()", equalTo(0))
+                .body("nextCursor", nullValue());
+    }
+
+    @Test
+    void shouldRejectMalformedCursorAndLimit() {
+        String deviceId = createDevice();
+
+        given()
+                .queryParam("cursor", "not-a-cursor")
+                .when()
+                .get("/api/v1/devices/{id}/history", deviceId)
+                .then()
+                .statusCode(400);
+
+        given()
+                .queryParam("limit", 0)
+                .when()
+                .get("/api/v1/devices/{id}/history", deviceId)
+                .then()
+                .statusCode(400);
+    }
+
+    private static String createDevice() {
+        return given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        {"name": "Thermostat", "brand": "Nest"}
+                        """)
+                .when()
+                .post("/api/v1/devices")
+                .then()
+                .statusCode(201)
+                .extract()
+                .jsonPath()
+                .getString("id");
+    }
+
+    private static void send(String method, String deviceId, String body) {
+        given()
+                .contentType(ContentType.JSON)
+                .body(body)
+                .when()
+                .request(method, "/api/v1/devices/{id}", deviceId)
+                .then()
+                .statusCode(200);
+    }
+}
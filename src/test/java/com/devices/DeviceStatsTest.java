@@ -0,0 +1,99 @@
+package com.devices;
+
+import com.devices.service.DeviceInventory;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+class DeviceStatsTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private DeviceInventory deviceInventory;
+
+    @BeforeEach
+    void startFromTheDatabase() {
+        deviceInventory.reconcile();
+    }
+
+    @Test
+    void countersFollowCreatesUpdatesAndDeletes() {
+        String thermostat = createDevice("Thermostat", "Nest");
+        createDevice("Camera", "Nest");
+        String doorbell = createDevice("Doorbell", "Ring");
+
+        patch(thermostat, """
+                {"state": "IN_USE"}
+                """);
+        patch(doorbell, """
+                {"brand": "Nest"}
+                """);
+        createDevice("Speaker", "Sonos");
+        given().when().delete("/api/v1/devices/" + doorbell).then().statusCode(204);
+
+        given()
+                .when()
+                .get("/api/v1/devices/stats")
+                .then()
+                .statusCode(200)
+                .body("total", equalTo(3))
+                .body("byState.AVAILABLE", equalTo(2))
+                .body("byState.IN_USE", equalTo(1))
+                .body("brands.brand", contains("Nest", "Sonos"))
+                .body("brands[0].total", equalTo(2))
+                .body("brands[0].byState.IN_USE", equalTo(1))
+                .body("brands[0].byState.AVAILABLE", equalTo(1))
+                .body("brands[1].byState.IN_USE", nullValue());
+    }
+
+    @Test
+    void reconciliationPicksUpChangesMadeOutsideTheService() {
+        createDevice("Thermostat", "Nest");
+        jdbcTemplate.update("""
+                INSERT INTO devices (device_id, name, brand, state, created_at, version)
+                VALUES (gen_random_uuid(), 'Hub', 'Nest', 'INACTIVE', now(), 0)
+                """);
+
+        given().when().get("/api/v1/devices/stats").then().body("total", equalTo(1));
+
+        deviceInventory.reconcile();
+
+        given()
+                .when()
+                .get("/api/v1/devices/stats")
+                .then()
+                .statusCode(200)
+                .body("total", equalTo(2))
+                .body("brands[0].byState.INACTIVE", equalTo(1));
+    }
+
+    private static String createDevice(String name, String brand) {
+        return given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        {"name": "%s", "brand": "%s"}
+                        """.formatted(name, brand))
+                .when()
+                .post("/api/v1/devices")
+                .then()
+                .statusCode(201)
+                .extract()
+                .jsonPath()
+                .getString("id");
+    }
+
+    private static void patch(String id, String body) {
+        given()
+                .contentType(ContentType.JSON)
+                .body(body)
+                .when()
+                .patch("/api/v1/devices/" + id)
+                .then()
+                .statusCode(200);
+    }
+}
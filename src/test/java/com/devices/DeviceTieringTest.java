@@ -0,0 +1,104 @@
+package com.devices;
+
+import com.devices.service.DeviceTieringJob;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+
+@TestPropertySource(properties = {"devices.tiering.inactive-age=0s", "devices.tiering.batch-size=2", "devices.tiering.batch-pause=0ms"})
+class DeviceTieringTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private DeviceTieringJob tieringJob;
+
+    @Test
+    void inactiveDevicesAreArchivedAndStillReadable() {
+        String inactive = createDevice("Thermostat");
+        String available = createDevice("Camera");
+        patchState(inactive, "INACTIVE");
+
+        assertThat(tieringJob.archive()).isEqualTo(1);
+
+        assertThat(jdbcTemplate.queryForList("SELECT device_id::text FROM devices", String.class)).containsExactly(available);
+        given().when().get("/api/v1/devices/" + inactive).then().statusCode(200)
+                .body("name", equalTo("Thermostat"))
+                .body("state", equalTo("INACTIVE"));
+        given().queryParam("status", "INACTIVE").when().get("/api/v1/devices").then().statusCode(200)
+                .body("id", contains(inactive));
+        given().when().get("/api/v1/devices").then().statusCode(200)
+                .body("id", containsInAnyOrder(available));
+        given()
+                .queryParam("status", "INACTIVE")
+                .queryParam("count", "EXACT")
+                .when()
+                .head("/api/v1/devices")
+                .then()
+                .header("X-Total-Count", "1");
+        given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        {"ids": ["%s", "%s"]}
+                        """.formatted(inactive, available))
+                .when()
+                .post("/api/v1/devices/lookup")
+                .then()
+                .statusCode(200)
+                .body("devices.id", containsInAnyOrder(inactive, available));
+    }
+
+    @Test
+    void writeMovesAnArchivedDeviceBack() {
+        String id = createDevice("Thermostat");
+        patchState(id, "INACTIVE");
+        tieringJob.archive();
+
+        patchState(id, "AVAILABLE");
+
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM devices_archive", Long.class)).isZero();
+        given().when().get("/api/v1/devices/" + id).then().statusCode(200).body("state", equalTo("AVAILABLE"));
+        assertThat(tieringJob.archive()).isZero();
+    }
+
+    @Test
+    void onlyLongInactiveDevicesAreArchived() {
+        String id = createDevice("Thermostat");
+        patchState(id, "INACTIVE");
+        jdbcTemplate.update("UPDATE devices SET state_changed_at = now() + interval '1 hour' WHERE device_id = ?::uuid", id);
+
+        assertThat(tieringJob.archive()).isZero();
+    }
+
+    private static void patchState(String id, String state) {
+        given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        {"state": "%s"}
+                        """.formatted(state))
+                .when()
+                .patch("/api/v1/devices/" + id)
+                .then()
+                .statusCode(200);
+    }
+
+    private static String createDevice(String name) {
+        return given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        {"name": "%s", "brand": "Nest"}
+                        """.formatted(name))
+                .when()
+                .post("/api/v1/devices")
+                .then()
+                .statusCode(201)
+                .extract()
+                .jsonPath()
+                .getString("id");
+    }
+}
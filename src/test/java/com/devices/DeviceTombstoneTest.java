@@ -0,0 +1,88 @@
+package com.devices;
+
+import com.devices.service.DeviceTombstonePurger;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+
+@TestPropertySource(properties = {"devices.purge.min-age=0s", "devices.purge.batch-size=2", "devices.purge.batch-pause=0ms"})
+class DeviceTombstoneTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private DeviceTombstonePurger purger;
+
+    @Test
+    void deletedDeviceKeepsItsRowButDisappearsFromTheApi() {
+        String deleted = createDevice("Thermostat");
+        String kept = createDevice("Camera");
+
+        given().when().delete("/api/v1/devices/" + deleted).then().statusCode(204);
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT deleted_at IS NOT NULL FROM devices WHERE device_id = ?::uuid", Boolean.class, deleted)).isTrue();
+        given().when().get("/api/v1/devices/" + deleted).then().statusCode(404);
+        given().when().delete("/api/v1/devices/" + deleted).then().statusCode(404);
+        given().when().get("/api/v1/devices").then().statusCode(200).body("id", contains(kept));
+        given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        {"ids": ["%s", "%s"]}
+                        """.formatted(deleted, kept))
+                .when()
+                .post("/api/v1/devices/lookup")
+                .then()
+                .statusCode(200)
+                .body("devices.id", contains(kept))
+                .body("missingIds", contains(deleted));
+        given()
+                .queryParam("count", "EXACT")
+                .when()
+                .head("/api/v1/devices")
+                .then()
+                .header("X-Total-Count", "1");
+        given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        {"count": 5}
+                        """)
+                .when()
+                .post("/api/v1/devices/claim")
+                .then()
+                .statusCode(200)
+                .body("id", contains(kept));
+    }
+
+    @Test
+    void purgerRemovesTombstonesInBatches() {
+        for (int i = 0; i < 5; i++) {
+            given().when().delete("/api/v1/devices/" + createDevice("Device " + i)).then().statusCode(204);
+        }
+        String kept = createDevice("Camera");
+
+        assertThat(purger.purge()).isEqualTo(5);
+
+        assertThat(jdbcTemplate.queryForList("SELECT device_id::text FROM devices", String.class)).containsExactly(kept);
+        given().when().get("/api/v1/devices/" + kept).then().statusCode(200).body("name", equalTo("Camera"));
+    }
+
+    private static String createDevice(String name) {
+        return given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        {"name": "%s", "brand": "Nest"}
+                        """.formatted(name))
+                .when()
+                .post("/api/v1/devices")
+                .then()
+                .statusCode(201)
+                .extract()
+                .jsonPath()
+                .getString("id");
+    }
+}
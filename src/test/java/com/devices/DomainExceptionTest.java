@@ -0,0 +1,34 @@
+package com.devices;
+
+import com.devices.domain.DeviceFieldLockedException;
+import com.devices.domain.DeviceNotFoundException;
+import com.devices.domain.DeviceStatus;
+import com.devices.domain.InvalidDeviceStateException;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DomainExceptionTest {
+
+    @Test
+    void domainExceptionsDoNotCaptureStackTraces() {
+        DeviceNotFoundException exception = new DeviceNotFoundException(UUID.randomUUID());
+
+        assertThat(exception.getStackTrace()).isEmpty();
+        exception.addSuppressed(new IllegalStateException());
+        assertThat(exception.getSuppressed()).isEmpty();
+    }
+
+    @Test
+    void messagesAreFormattedOnDemand() {
+        UUID id = UUID.fromString("550e8400-e29b-41d4-a716-446655440000");
+
+        assertThat(new DeviceNotFoundException(id)).
+                hasMessage("Device with id 550e8400-e29b-41d4-a716-446655440000 not found");
+        assertThat(new DeviceFieldLockedException("name", DeviceStatus.IN_USE)).
+                hasMessage("Cannot update 'name' field when device is in IN_USE state");
+        assertThat(new InvalidDeviceStateException("Unknown state")).hasMessage("Unknown state");
+    }
+}
@@ -0,0 +1,70 @@
+package com.devices;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Index DDL on a table that already holds data must not block writes: SQL migrations build and drop indexes
+ * {@code CONCURRENTLY}, outside a transaction, unless the table is created by the same script. Java migrations
+ * build indexes with {@code OnlineSchemaChange.createIndex}, which always does.
+ */
+class MigrationLockingTest {
+
+    private static final Pattern COMMENT = Pattern.compile("--[^\n]*");
+
+    private static final Pattern CREATED_TABLE = Pattern.compile(
+            "CREATE\\s+TABLE\\s+(?:IF\\s+NOT\\s+EXISTS\\s+)?(\\w+)", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern CREATE_INDEX = Pattern.compile(
+            "CREATE\\s+(?:UNIQUE\\s+)?INDEX\\s+(CONCURRENTLY\\s+)?(?:IF\\s+NOT\\s+EXISTS\\s+)?\\w+\\s+ON\\s+(?:ONLY\\s+)?(\\w+)",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern DROP_INDEX = Pattern.compile("DROP\\s+INDEX\\s+(CONCURRENTLY\\s+)?", Pattern.CASE_INSENSITIVE);
+
+    @Test
+    void indexesOnExistingTablesAreBuiltAndDroppedConcurrently() throws IOException {
+        Resource[] scripts = new PathMatchingResourcePatternResolver().getResources("classpath:db/migration/*.sql");
+        assertThat(scripts).isNotEmpty();
+
+        for (Resource script : scripts) {
+            String name = script.getFilename();
+            String sql = COMMENT.matcher(script.getContentAsString(StandardCharsets.UTF_8)).replaceAll("");
+            Set<String> createdTables = new HashSet<>();
+            for (Matcher table = CREATED_TABLE.matcher(sql); table.find(); ) {
+                createdTables.add(table.group(1).toLowerCase(Locale.ROOT));
+            }
+            boolean concurrent = false;
+
+            for (Matcher index = CREATE_INDEX.matcher(sql); index.find(); ) {
+                boolean ownTable = createdTables.contains(index.group(2).toLowerCase(Locale.ROOT));
+                assertThat(index.group(1) != null || ownTable).
+                        as("%s: %s", name, index.group()).
+                        isTrue();
+                concurrent |= index.group(1) != null;
+            }
+            for (Matcher index = DROP_INDEX.matcher(sql); index.find(); ) {
+                assertThat(index.group(1)).as("%s: DROP INDEX without CONCURRENTLY", name).isNotNull();
+                concurrent = true;
+            }
+
+            if (concurrent) {
+                Resource conf = script.createRelative(name + ".conf");
+                assertThat(conf.exists()).as("%s needs a .sql.conf", name).isTrue();
+                assertThat(conf.getContentAsString(StandardCharsets.UTF_8)).
+                        as("%s.conf", name).
+                        contains("executeInTransaction=false");
+            }
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.devices;
+
+import com.devices.api.dto.CreateDeviceRequest;
+import com.devices.api.dto.DeviceResponse;
+import com.devices.api.dto.PatchDeviceRequest;
+import com.devices.config.OnlineMigrationProperties;
+import com.devices.migration.OnlineSchemaChange;
+import com.devices.service.DeviceService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OnlineSchemaChangeTest extends AbstractIntegrationTest {
+
+    private static final int SEEDED = 200_000;
+
+    private static final OnlineMigrationProperties PROPERTIES = new OnlineMigrationProperties(
+            5000, Duration.ofMillis(10), Duration.ofMillis(200), 5, Duration.ofMillis(50), Duration.ofSeconds(1));
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private DeviceService deviceService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void revertSchemaChanges() {
+        jdbcTemplate.execute("ALTER TABLE devices DROP COLUMN IF EXISTS migration_probe");
+        jdbcTemplate.execute("DROP INDEX IF EXISTS idx_devices_probe_brand");
+    }
+
+    @Test
+    void writesKeepFlowingWhileAColumnIsAddedAndBackfilled() throws Exception {
+        jdbcTemplate.update("""
+                INSERT INTO devices (device_id, name, brand, state, created_at, version)
+                SELECT gen_random_uuid(), 'Device ' || i, 'Brand ' || (i % 50), 'AVAILABLE', now(), i % 3
+                FROM generate_series(1, ?) AS i
+                """, SEEDED);
+        jdbcTemplate.execute("ANALYZE devices");
+
+        List<Long> baseline = new ArrayList<>();
+        recordWriteLatencies(baseline, () -> baseline.size() < 200);
+
+        List<Long> during = new ArrayList<>();
+        long backfilled;
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            Future<Long> migration = executor.submit(this::addProbeColumn);
+            recordWriteLatencies(during, () -> !migration.isDone());
+            backfilled = migration.get();
+        }
+
+        assertThat(backfilled).isGreaterThanOrEqualTo(SEEDED);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM devices WHERE migration_probe = version", Long.class)).
+                isGreaterThanOrEqualTo(SEEDED);
+        assertThat(jdbcTemplate.queryForObject("""
+                SELECT attnotnull FROM pg_attribute
+                WHERE attrelid = 'devices'::regclass AND attname = 'migration_probe'
+                """, Boolean.class)).isTrue();
+        assertThat(isValidIndex("idx_devices_migration_probe")).isTrue();
+        assertThat(during).isNotEmpty();
+        assertThat(max(during)).
+                as("slowest write during the migration (baseline p99 %d ms, p99 during %d ms)",
+                        p99(baseline), p99(during)).
+                isLessThan(1000);
+    }
+
+    @Test
+    void stateChangedAtIsAddedOnlineAndEndsUpNotNull() {
+        assertThat(jdbcTemplate.queryForObject("""
+                SELECT success FROM flyway_schema_history
+                WHERE description = 'Create devices archive' AND type = 'JDBC'
+                """, Boolean.class)).isTrue();
+        assertThat(jdbcTemplate.queryForObject("""
+                SELECT attnotnull FROM pg_attribute
+                WHERE attrelid = 'devices'::regclass AND attname = 'state_changed_at'
+                """, Boolean.class)).isTrue();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_constraint WHERE conname = 'chk_devices_state_changed_at_not_null'", Long.class)).
+                isZero();
+        assertThat(isValidIndex("idx_devices_inactive_since")).isTrue();
+        assertThat(isValidIndex("idx_devices_archive_brand")).isTrue();
+
+        DeviceResponse device = deviceService.create(new CreateDeviceRequest("Thermostat", "Nest"));
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT state_changed_at IS NOT NULL FROM devices WHERE device_id = ?", Boolean.class, device.id())).
+                isTrue();
+    }
+
+    @Test
+    void nameSearchIndexIsBuiltByAJavaMigrationAndServesTheNameFilter() {
+        assertThat(jdbcTemplate.queryForObject("""
+                SELECT success FROM flyway_schema_history
+                WHERE description = 'Index device names for substring search' AND type = 'JDBC'
+                """, Boolean.class)).isTrue();
+        assertThat(isValidIndex("idx_devices_name_trgm")).isTrue();
+
+        deviceService.create(new CreateDeviceRequest("Smart Thermostat", "Nest"));
+        List<String> plan = new TransactionTemplate(transactionManager).execute(status -> {
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+            return jdbcTemplate.queryForList(
+                    "EXPLAIN SELECT * FROM devices WHERE lower(name) LIKE '%thermo%' AND deleted_at IS NULL", String.class);
+        });
+        assertThat(plan).anySatisfy(line -> assertThat(line).contains("idx_devices_name_trgm"));
+    }
+
+    @Test
+    void createIndexReplacesAnIndexLeftInvalidByAFailedBuild() throws SQLException {
+        deviceService.create(new CreateDeviceRequest("Thermostat", "Nest"));
+        deviceService.create(new CreateDeviceRequest("Camera", "Nest"));
+        assertThatThrownBy(() -> jdbcTemplate.execute("CREATE UNIQUE INDEX CONCURRENTLY idx_devices_probe_brand ON devices (brand)")).
+                hasMessageContaining("duplicate");
+        assertThat(isValidIndex("idx_devices_probe_brand")).isFalse();
+
+        try (Connection connection = dataSource.getConnection()) {
+            new OnlineSchemaChange(connection, PROPERTIES).createIndex("idx_devices_probe_brand", "ON devices (brand)");
+        }
+
+        assertThat(isValidIndex("idx_devices_probe_brand")).isTrue();
+    }
+
+    @Test
+    void alterGivesUpInsteadOfQueueingBehindALongTransaction() throws SQLException {
+        try (Connection reader = dataSource.getConnection(); Connection migrator = dataSource.getConnection()) {
+            reader.setAutoCommit(false);
+            try (Statement statement = reader.createStatement()) {
+                statement.execute("LOCK TABLE devices IN ACCESS SHARE MODE");
+            }
+            OnlineSchemaChange change = new OnlineSchemaChange(migrator, PROPERTIES);
+
+            long started = System.nanoTime();
+            assertThatThrownBy(() -> change.alter("ALTER TABLE devices ADD COLUMN migration_probe BIGINT")).
+                    isInstanceOf(SQLException.class).
+                    extracting(e -> ((SQLException) e).getSQLState()).
+                    isEqualTo("55P03");
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isLessThan(3000);
+            reader.rollback();
+        }
+        deviceService.create(new CreateDeviceRequest("Thermostat", "Nest"));
+    }
+
+    private long addProbeColumn() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            OnlineSchemaChange change = new OnlineSchemaChange(connection, PROPERTIES);
+            change.alter("ALTER TABLE devices ADD COLUMN IF NOT EXISTS migration_probe BIGINT");
+            change.alter("ALTER TABLE devices ALTER COLUMN migration_probe SET DEFAULT -1");
+            long backfilled = change.backfill("devices", "migration_probe = version", "migration_probe IS NULL");
+            change.setNotNull("devices", "migration_probe");
+            change.createIndex("idx_devices_migration_probe", "ON devices (migration_probe)");
+            return backfilled;
+        }
+    }
+
+    private void recordWriteLatencies(List<Long> latencies, BooleanSupplier keepGoing) {
+        int i = 0;
+        while (keepGoing.getAsBoolean()) {
+            long started = System.nanoTime();
+            DeviceResponse device = deviceService.create(new CreateDeviceRequest("Probe " + i++, "Nest"));
+            latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+
+            started = System.nanoTime();
+            deviceService.updatePartial(device.id(), new PatchDeviceRequest("Renamed", null, null));
+            latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        }
+    }
+
+    private boolean isValidIndex(String name) {
+        return jdbcTemplate.queryForObject(
+                "SELECT coalesce((SELECT indisvalid FROM pg_index WHERE indexrelid = to_regclass(?)), false)",
+                Boolean.class, name);
+    }
+
+    private static long max(List<Long> latencies) {
+        return latencies.stream().mapToLong(Long::longValue).max().orElse(0);
+    }
+
+    private static long p99(List<Long> latencies) {
+        List<Long> sorted = latencies.stream().sorted().toList();
+        return sorted.isEmpty() ? 0 : sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1);
+    }
+}
@@ -0,0 +1,115 @@
+package com.devices;
+
+import com.devices.service.SingleFlight;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    @Test
+    void followersShareTheResultOfTheInFlightCall() throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>(true, Duration.ofSeconds(5));
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 16;
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(callers)) {
+            List<Future<Integer>> results = new ArrayList<>();
+            results.add(executor.submit(() -> singleFlight.execute("key", () -> {
+                loads.incrementAndGet();
+                await(release);
+                return 42;
+            })));
+            for (int i = 1; i < callers; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("key", loads::incrementAndGet)));
+            }
+
+            while (singleFlight.getCoalescedCount() < callers - 1) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            for (Future<Integer> result : results) {
+                assertThat(result.get()).isEqualTo(42);
+            }
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void followerRunsItsOwnCallAfterWaitingTooLong() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(true, Duration.ofMillis(50));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            Future<String> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+                started.countDown();
+                await(release);
+                return "leader";
+            }));
+            await(started);
+
+            assertThat(singleFlight.execute("key", () -> "follower")).isEqualTo("follower");
+
+            release.countDown();
+            assertThat(leader.get()).isEqualTo("leader");
+        }
+        assertThat(singleFlight.getWaitTimeoutCount()).isEqualTo(1);
+    }
+
+    @Test
+    void callersDoNotJoinACallThatStartedBeforeTheirGeneration() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(true, Duration.ofSeconds(5));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            Future<String> stale = executor.submit(() -> singleFlight.execute("key", 1, () -> {
+                started.countDown();
+                await(release);
+                return "before write";
+            }));
+            await(started);
+            Future<String> sameGeneration = executor.submit(() -> singleFlight.execute("key", 1, () -> "own load"));
+            while (singleFlight.getCoalescedCount() < 1) {
+                Thread.onSpinWait();
+            }
+
+            assertThat(singleFlight.execute("key", 2, () -> "after write")).isEqualTo("after write");
+
+            release.countDown();
+            assertThat(stale.get()).isEqualTo("before write");
+            assertThat(sameGeneration.get()).isEqualTo("before write");
+        }
+    }
+
+    @Test
+    void exceptionsArePropagatedToTheCaller() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(true, Duration.ofSeconds(1));
+
+        assertThatThrownBy(() -> singleFlight.execute("key", () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.devices;
+
+import com.devices.profiling.SqlProfiler;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+
+/**
+ * The profiler is on but the endpoint keeps the default exposure: it must be neither readable nor resettable.
+ */
+@TestPropertySource(properties = "devices.sql-profiler.enabled=true")
+class SqlProfilerExposureTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private SqlProfiler sqlProfiler;
+
+    @Test
+    void endpointIsNotExposedByDefault() {
+        jdbcTemplate.queryForObject("SELECT count(*) FROM devices WHERE brand = 'Nest'", Long.class);
+
+        given().when().get("/actuator/sqlprofile").then().statusCode(not(200));
+        given().when().delete("/actuator/sqlprofile").then().statusCode(not(204));
+
+        assertThat(sqlProfiler.top(100, SqlProfiler.Order.COUNT)).
+                anySatisfy(stats -> assertThat(stats.sql()).isEqualTo("SELECT count(*) FROM devices WHERE brand = ?"));
+    }
+}
@@ -0,0 +1,75 @@
+package com.devices;
+
+import com.devices.api.dto.CreateDeviceRequest;
+import com.devices.api.dto.DeviceResponse;
+import com.devices.profiling.SqlProfiler;
+import com.devices.service.DeviceService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+
+@TestPropertySource(properties = {
+        "devices.sql-profiler.enabled=true",
+        "management.endpoints.web.exposure.include=health,sqlprofile"
+})
+class SqlProfilerTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private SqlProfiler sqlProfiler;
+
+    @Autowired
+    private DeviceService deviceService;
+
+    @BeforeEach
+    void resetProfiler() {
+        sqlProfiler.reset();
+    }
+
+    @Test
+    void shouldGroupStatementsByShapeAndCountRows() {
+        DeviceResponse first = deviceService.create(new CreateDeviceRequest("Thermostat", "Nest"));
+        DeviceResponse second = deviceService.create(new CreateDeviceRequest("Camera", "Nest"));
+        jdbcTemplate.queryForList("SELECT name FROM devices WHERE device_id = '" + first.id() + "'");
+        jdbcTemplate.queryForList("SELECT name FROM devices WHERE device_id = '" + second.id() + "'");
+
+        List<SqlProfiler.StatementStats> top = sqlProfiler.top(100, SqlProfiler.Order.COUNT);
+
+        assertThat(top).
+                filteredOn(stats -> stats.sql().equals("SELECT name FROM devices WHERE device_id = ?")).
+                singleElement().
+                satisfies(stats -> {
+                    assertThat(stats.count()).isEqualTo(2);
+                    assertThat(stats.rows()).isEqualTo(2);
+                    assertThat(stats.errors()).isZero();
+                });
+        assertThat(top).anySatisfy(stats -> assertThat(stats.sql()).startsWithIgnoringCase("insert into devices"));
+    }
+
+    @Test
+    void shouldExposeTopStatementsThroughActuator() {
+        jdbcTemplate.queryForObject("SELECT count(*) FROM devices WHERE brand = 'Nest'", Long.class);
+
+        given()
+                .when()
+                .get("/actuator/sqlprofile?limit=5&order=COUNT")
+                .then()
+                .statusCode(200)
+                .body("sql", hasItem("SELECT count(*) FROM devices WHERE brand = ?"));
+
+        given()
+                .when()
+                .delete("/actuator/sqlprofile")
+                .then()
+                .statusCode(204);
+
+        assertThat(sqlProfiler.top(100, SqlProfiler.Order.COUNT)).
+                noneSatisfy(stats -> assertThat(stats.sql()).isEqualTo("SELECT count(*) FROM devices WHERE brand = ?"));
+    }
+}
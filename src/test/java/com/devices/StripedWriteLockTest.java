@@ -0,0 +1,113 @@
+package com.devices;
+
+import com.devices.config.WriteLockProperties;
+import com.devices.service.StripedWriteLock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StripedWriteLockTest {
+
+    @Test
+    void writesToTheSameDeviceDoNotOverlap() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        StripedWriteLock writeLock = new StripedWriteLock(new WriteLockProperties(true, 16, Duration.ofSeconds(10)), meterRegistry);
+        UUID id = UUID.randomUUID();
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger maxInside = new AtomicInteger();
+        int writers = 16;
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(writers)) {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < writers; i++) {
+                results.add(executor.submit(() -> writeLock.execute(id, () -> {
+                    maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+                    sleep(5);
+                    return inside.decrementAndGet();
+                })));
+            }
+            for (Future<Integer> result : results) {
+                result.get();
+            }
+        }
+
+        assertThat(maxInside).hasValue(1);
+        assertThat(meterRegistry.get("devices.write_lock.wait").timer().count()).isEqualTo(writers);
+    }
+
+    @Test
+    void writerRunsWithoutTheLockAfterWaitingTooLong() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        StripedWriteLock writeLock = new StripedWriteLock(new WriteLockProperties(true, 16, Duration.ofMillis(50)), meterRegistry);
+        UUID id = UUID.randomUUID();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            Future<String> holder = executor.submit(() -> writeLock.execute(id, () -> {
+                started.countDown();
+                await(release);
+                return "holder";
+            }));
+            await(started);
+
+            assertThat(writeLock.execute(id, () -> "waiter")).isEqualTo("waiter");
+
+            release.countDown();
+            assertThat(holder.get()).isEqualTo("holder");
+        }
+        assertThat(meterRegistry.get("devices.write_lock.timeouts").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void disabledLockLetsWritersOverlap() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        StripedWriteLock writeLock = new StripedWriteLock(new WriteLockProperties(false, 16, Duration.ofSeconds(10)), meterRegistry);
+        UUID id = UUID.randomUUID();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            Future<String> holder = executor.submit(() -> writeLock.execute(id, () -> {
+                started.countDown();
+                await(release);
+                return "holder";
+            }));
+            await(started);
+
+            assertThat(writeLock.execute(id, () -> "concurrent")).isEqualTo("concurrent");
+
+            release.countDown();
+            assertThat(holder.get()).isEqualTo("holder");
+        }
+        assertThat(meterRegistry.get("devices.write_lock.wait").timer().count()).isZero();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
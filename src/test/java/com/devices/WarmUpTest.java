@@ -0,0 +1,85 @@
+package com.devices;
+
+import com.devices.api.WarmUpRunner;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.event.EventListener;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+@TestPropertySource(properties = {
+        "devices.warm-up.enabled=true",
+        "devices.warm-up.rounds=3",
+        "devices.warm-up.concurrency=2"
+})
+class WarmUpTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private WarmUpRunner warmUpRunner;
+
+    @Autowired
+    private ReadinessEvents readinessEvents;
+
+    @Test
+    void warmUpRunsBeforeTheApplicationIsReady() {
+        WarmUpRunner.Result result = warmUpRunner.getResult();
+
+        // readiness is REFUSING_TRAFFIC until its first change, which must come after the warm-up
+        assertThat(readinessEvents.states).containsExactly(ReadinessState.ACCEPTING_TRAFFIC);
+        assertThat(readinessEvents.resultWhenAcceptingTraffic).isNotNull().isSameAs(result);
+
+        assertThat(result.rounds()).isEqualTo(3);
+        assertThat(result.requests()).isGreaterThanOrEqualTo(3 * 2 * 5);
+        assertThat(result.failures()).isZero();
+        assertThat(result.interrupted()).isFalse();
+
+        given()
+                .when()
+                .get("/actuator/health/readiness")
+                .then()
+                .statusCode(200)
+                .body("status", equalTo("UP"));
+    }
+
+    @Test
+    void warmUpReportsTheLatenciesOfItsFirstAndLastRounds() {
+        WarmUpRunner.Result result = warmUpRunner.getResult();
+
+        // the first round meets a cold JIT and empty pools, so its slowest request takes at least a millisecond
+        assertThat(result.firstRoundMax()).isPositive().isGreaterThanOrEqualTo(result.firstRoundMedian());
+        assertThat(result.firstRoundMedian()).isNotNegative();
+        assertThat(result.lastRoundMax()).isGreaterThanOrEqualTo(result.lastRoundMedian());
+        assertThat(result.lastRoundMedian()).isNotNegative();
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class ReadinessEvents {
+
+        private final WarmUpRunner warmUpRunner;
+
+        private final List<ReadinessState> states = new CopyOnWriteArrayList<>();
+
+        private volatile WarmUpRunner.Result resultWhenAcceptingTraffic;
+
+        ReadinessEvents(WarmUpRunner warmUpRunner) {
+            this.warmUpRunner = warmUpRunner;
+        }
+
+        @EventListener
+        void readinessChanged(AvailabilityChangeEvent<ReadinessState> event) {
+            if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC && !states.contains(ReadinessState.ACCEPTING_TRAFFIC)) {
+                resultWhenAcceptingTraffic = warmUpRunner.getResult();
+            }
+            states.add(event.getState());
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.devices.benchmark;
+
+import com.devices.AbstractIntegrationTest;
+import org.junit.jupiter.api.Tag;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+/**
+ * Base class for load benchmarks. They are excluded from {@code ./gradlew test} and run with
+ * {@code ./gradlew benchmark}; results are printed to standard output.
+ */
+@Tag("benchmark")
+@TestPropertySource(properties = "devices.concurrency-limit.enabled=false")
+public abstract class AbstractBenchmark extends AbstractIntegrationTest {
+
+    protected final HttpClient httpClient = HttpClient.newBuilder().
+            version(HttpClient.Version.HTTP_1_1).
+            build();
+
+    protected URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    protected HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    protected HttpRequest.Builder json(String path, String method, String body) {
+        return HttpRequest.newBuilder(uri(path)).
+                header("Content-Type", "application/json").
+                method(method, HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    protected static void report(String benchmark, String result) {
+        System.out.printf("[benchmark] %s: %s%n", benchmark, result);
+    }
+}
@@ -0,0 +1,47 @@
+package com.devices.benchmark;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hundreds of schedulers claiming one device at a time from a large AVAILABLE pool.
+ */
+class DeviceClaimBenchmark extends AbstractBenchmark {
+
+    private static final int CLAIMERS = 200;
+
+    private static final int DEVICES = 200_000;
+
+    private static final Pattern ID = Pattern.compile("\"id\":\"([0-9a-f-]{36})\"");
+
+    @Test
+    void claimsPerSecond() throws Exception {
+        jdbcTemplate.update("""
+                INSERT INTO devices (device_id, name, brand, state, created_at, version)
+                SELECT gen_random_uuid(), 'Device ' || g, 'Bench', 'AVAILABLE', now(), 0
+                FROM generate_series(1, ?) g
+                """, DEVICES);
+        jdbcTemplate.execute("ANALYZE devices");
+        Set<String> claimed = ConcurrentHashMap.newKeySet();
+
+        LoadDriver.Result result = LoadDriver.run(CLAIMERS, Duration.ZERO, Duration.ofSeconds(15), (thread, i) -> {
+            HttpResponse<String> response = send(json("/api/v1/devices/claim", "POST", "{\"count\":1}").build());
+            Matcher matcher = ID.matcher(response.body());
+            if (response.statusCode() != 200 || !matcher.find()) {
+                return false;
+            }
+            return claimed.add(matcher.group(1));
+        });
+
+        report("DeviceClaimBenchmark", "%s, %d distinct devices claimed by %d claimers".formatted(result, claimed.size(), CLAIMERS));
+        assertThat(result.failed()).isZero();
+    }
+}
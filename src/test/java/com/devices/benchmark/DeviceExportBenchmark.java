@@ -0,0 +1,59 @@
+package com.devices.benchmark;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Full-table export through {@code COPY TO STDOUT} compared with listing the same devices as
+ * {@code DeviceResponse} JSON.
+ */
+class DeviceExportBenchmark extends AbstractBenchmark {
+
+    private static final int DEVICES = 500_000;
+
+    private static final int ROUNDS = 3;
+
+    @Test
+    void copyExportVersusJsonList() throws Exception {
+        jdbcTemplate.update("""
+                INSERT INTO devices (device_id, name, brand, state, created_at, version)
+                SELECT gen_random_uuid(), 'Device ' || g, 'Bench', 'AVAILABLE', now(), 0
+                FROM generate_series(1, ?) g
+                """, DEVICES);
+        jdbcTemplate.execute("ANALYZE devices");
+
+        measure("csv-export", "/api/v1/devices/export");
+        measure("json-list", "/api/v1/devices");
+    }
+
+    private void measure(String variant, String path) throws IOException, InterruptedException {
+        download(path);
+        long best = Long.MAX_VALUE;
+        long bytes = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long started = System.nanoTime();
+            bytes = download(path);
+            best = Math.min(best, System.nanoTime() - started);
+        }
+        double seconds = best / 1e9;
+        report("DeviceExportBenchmark", "%s: %d devices, %.1f MB in %.2f s = %.0f rows/s".formatted(
+                variant, DEVICES, bytes / 1e6, seconds, DEVICES / seconds));
+    }
+
+    private long download(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri(path)).timeout(Duration.ofMinutes(5)).GET().build();
+        HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        assertThat(response.statusCode()).isEqualTo(200);
+        try (InputStream body = response.body()) {
+            return body.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+}
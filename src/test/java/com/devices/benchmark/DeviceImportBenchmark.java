@@ -0,0 +1,90 @@
+package com.devices.benchmark;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Streams a generated multi-million row CSV into the import endpoint; the upload is produced lazily so neither
+ * side ever holds the whole file.
+ */
+class DeviceImportBenchmark extends AbstractBenchmark {
+
+    private static final int ROWS = 2_000_000;
+
+    @Test
+    void rowsPerSecond() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri("/api/v1/devices/import")).
+                header("Content-Type", "text/csv").
+                timeout(Duration.ofMinutes(5)).
+                POST(HttpRequest.BodyPublishers.ofInputStream(() -> new GeneratedCsv(ROWS))).
+                build();
+
+        long started = System.nanoTime();
+        HttpResponse<String> response = send(request);
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).contains("\"imported\":" + ROWS);
+        report("DeviceImportBenchmark", "%d rows in %.1f s = %.0f rows/s".formatted(ROWS, seconds, ROWS / seconds));
+    }
+
+    private static final class GeneratedCsv extends InputStream {
+
+        private static final String[] BRANDS = {"Nest", "Apple", "Ring", "Bosch", "Philips"};
+
+        private static final String[] STATES = {"AVAILABLE", "IN_USE", "INACTIVE", ""};
+
+        private final int rows;
+
+        private int row;
+
+        private byte[] line = "name,brand,state\n".getBytes(StandardCharsets.UTF_8);
+
+        private int position;
+
+        private GeneratedCsv(int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public int read() {
+            if (position == line.length && !nextLine()) {
+                return -1;
+            }
+            return line[position++];
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            int written = 0;
+            while (written < length) {
+                if (position == line.length && !nextLine()) {
+                    return written == 0 ? -1 : written;
+                }
+                int count = Math.min(length - written, line.length - position);
+                System.arraycopy(line, position, buffer, offset + written, count);
+                position += count;
+                written += count;
+            }
+            return written;
+        }
+
+        private boolean nextLine() {
+            if (row == rows) {
+                return false;
+            }
+            row++;
+            line = ("Device " + row + "," + BRANDS[row % BRANDS.length] + "," + STATES[row % STATES.length] + "\n").
+                    getBytes(StandardCharsets.UTF_8);
+            position = 0;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.devices.benchmark;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Resolving batches of ids with one {@code POST /lookup} versus one {@code GET /{id}} per id.
+ */
+class DeviceLookupBenchmark extends AbstractBenchmark {
+
+    private static final int CLIENTS = 16;
+
+    private static final int BATCH = 100;
+
+    private static final int DEVICES = 100_000;
+
+    @Test
+    void lookupVersusSingleGets() throws Exception {
+        jdbcTemplate.update("""
+                INSERT INTO devices (device_id, name, brand, state, created_at, version)
+                SELECT gen_random_uuid(), 'Device ' || g, 'Bench', 'AVAILABLE', now(), 0
+                FROM generate_series(1, ?) g
+                """, DEVICES);
+        jdbcTemplate.execute("ANALYZE devices");
+        List<String> ids = jdbcTemplate.queryForList("SELECT device_id::text FROM devices", String.class);
+
+        LoadDriver.Result batched = LoadDriver.run(CLIENTS, Duration.ofSeconds(3), Duration.ofSeconds(10), (thread, i) -> {
+            String body = batch(ids, thread, i).stream().
+                    map(id -> "\"" + id + "\"").
+                    collect(Collectors.joining(",", "{\"ids\":[", "]}"));
+            return send(json("/api/v1/devices/lookup", "POST", body).build()).statusCode() == 200;
+        });
+        LoadDriver.Result single = LoadDriver.run(CLIENTS, Duration.ofSeconds(3), Duration.ofSeconds(10), (thread, i) -> {
+            for (String id : batch(ids, thread, i)) {
+                HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/api/v1/devices/" + id)).GET().build());
+                if (response.statusCode() != 200) {
+                    return false;
+                }
+            }
+            return true;
+        });
+
+        report("DeviceLookupBenchmark", "lookup of %d ids: %s, %.0f ids/s".formatted(BATCH, batched, batched.throughput() * BATCH));
+        report("DeviceLookupBenchmark", "%d single GETs: %s, %.0f ids/s".formatted(BATCH, single, single.throughput() * BATCH));
+        assertThat(batched.failed()).isZero();
+        assertThat(single.failed()).isZero();
+    }
+
+    private static List<String> batch(List<String> ids, int thread, long iteration) {
+        int start = (int) ((thread * 7919L + iteration * BATCH) % (ids.size() - BATCH));
+        return ids.subList(start, start + BATCH);
+    }
+}
@@ -0,0 +1,46 @@
+package com.devices.benchmark;
+
+import com.devices.service.DeviceInventory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.net.http.HttpRequest;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Per-brand and per-state counts from {@code GET /stats} versus downloading the full list, as the dashboard
+ * used to do.
+ */
+class DeviceStatsBenchmark extends AbstractBenchmark {
+
+    private static final int CLIENTS = 8;
+
+    private static final int DEVICES = 100_000;
+
+    @Autowired
+    private DeviceInventory deviceInventory;
+
+    @Test
+    void statsVersusFullList() throws Exception {
+        jdbcTemplate.update("""
+                INSERT INTO devices (device_id, name, brand, state, created_at, version)
+                SELECT gen_random_uuid(), 'Device ' || g, 'Brand ' || (g % 50),
+                       (ARRAY['AVAILABLE', 'IN_USE', 'INACTIVE'])[1 + g % 3], now(), 0
+                FROM generate_series(1, ?) g
+                """, DEVICES);
+        jdbcTemplate.execute("ANALYZE devices");
+        deviceInventory.reconcile();
+
+        LoadDriver.Result stats = LoadDriver.run(CLIENTS, Duration.ofSeconds(3), Duration.ofSeconds(10), (thread, i) ->
+                send(HttpRequest.newBuilder(uri("/api/v1/devices/stats")).GET().build()).statusCode() == 200);
+        LoadDriver.Result fullList = LoadDriver.run(CLIENTS, Duration.ofSeconds(3), Duration.ofSeconds(10), (thread, i) ->
+                send(HttpRequest.newBuilder(uri("/api/v1/devices")).GET().build()).statusCode() == 200);
+
+        report("DeviceStatsBenchmark", "GET /stats: " + stats);
+        report("DeviceStatsBenchmark", "GET / (%d devices): %s".formatted(DEVICES, fullList));
+        assertThat(stats.failed()).isZero();
+        assertThat(fullList.failed()).isZero();
+    }
+}
@@ -0,0 +1,60 @@
+package com.devices.benchmark;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.LongFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Error-heavy traffic: GETs of unknown ids (404) compared with GETs of an existing device (200). Reports
+ * process CPU time and heap allocation per request; client and server share the JVM, so compare the two
+ * lines (or the same line across revisions) rather than reading them as absolute server costs.
+ */
+class ErrorPathLoadBenchmark extends AbstractBenchmark {
+
+    private static final int CLIENTS = 16;
+
+    private final com.sun.management.OperatingSystemMXBean os =
+            (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void notFoundVersusFound() throws Exception {
+        String existing = send(json("/api/v1/devices", "POST", "{\"name\":\"Thermostat\",\"brand\":\"Nest\"}").build()).
+                body().replaceAll(".*\"id\":\"([0-9a-f-]{36})\".*", "$1");
+        UUID[] missing = new UUID[1024];
+        for (int i = 0; i < missing.length; i++) {
+            missing[i] = UUID.randomUUID();
+        }
+
+        measure("not-found", 404, i -> "/api/v1/devices/" + missing[(int) (i % missing.length)]);
+        measure("found", 200, i -> "/api/v1/devices/" + existing);
+    }
+
+    private void measure(String variant, int expectedStatus, LongFunction<String> path) throws Exception {
+        LoadDriver.Operation get = (thread, i) -> {
+            HttpResponse<String> response = send(HttpRequest.newBuilder(uri(path.apply(i))).GET().build());
+            return response.statusCode() == expectedStatus;
+        };
+        LoadDriver.run(CLIENTS, Duration.ZERO, Duration.ofSeconds(5), get);
+
+        long cpuBefore = os.getProcessCpuTime();
+        long allocatedBefore = threads.getTotalThreadAllocatedBytes();
+        LoadDriver.Result result = LoadDriver.run(CLIENTS, Duration.ZERO, Duration.ofSeconds(15), get);
+        long requests = result.succeeded() + result.failed();
+        double cpuMicros = (os.getProcessCpuTime() - cpuBefore) / 1e3 / requests;
+        double allocatedKb = (threads.getTotalThreadAllocatedBytes() - allocatedBefore) / 1024.0 / requests;
+
+        report("ErrorPathLoadBenchmark", "%s: %s, %.1f us CPU/request, %.1f KB allocated/request".formatted(
+                variant, result, cpuMicros, allocatedKb));
+        assertThat(result.failed()).isZero();
+    }
+}
@@ -0,0 +1,69 @@
+package com.devices.benchmark;
+
+import com.devices.api.dto.DeviceFilterRequest;
+import com.devices.domain.DeviceStatus;
+import com.devices.service.DeviceService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * CPU spent per filtered list call, cycling through all eight brand/name/state filter combinations on a small
+ * table, so that building and rendering the query dominates over reading rows. Calls go straight to
+ * {@link DeviceService} and only the calling thread's CPU time is counted.
+ */
+@TestPropertySource(properties = "devices.read-coalescing.enabled=false")
+class FilteredListBenchmark extends AbstractBenchmark {
+
+    private static final int CLIENTS = 8;
+
+    private static final int DEVICES = 200;
+
+    private static final DeviceFilterRequest[] FILTERS = {
+            new DeviceFilterRequest(null, null, null, null, null),
+            new DeviceFilterRequest("Brand 1", null, null, null, null),
+            new DeviceFilterRequest(null, "device 1", null, null, null),
+            new DeviceFilterRequest("Brand 1", "device 1", null, null, null),
+            new DeviceFilterRequest(null, null, DeviceStatus.AVAILABLE, null, null),
+            new DeviceFilterRequest("Brand 1", null, DeviceStatus.AVAILABLE, null, null),
+            new DeviceFilterRequest(null, "device 1", DeviceStatus.IN_USE, null, null),
+            new DeviceFilterRequest("Brand 1", "device 1", DeviceStatus.IN_USE, null, null)
+    };
+
+    @Autowired
+    private DeviceService deviceService;
+
+    @Test
+    void cpuPerFilteredList() throws Exception {
+        jdbcTemplate.update("""
+                INSERT INTO devices (device_id, name, brand, state, created_at, version)
+                SELECT gen_random_uuid(), 'Device ' || g, 'Brand ' || (g % 5),
+                       (ARRAY['AVAILABLE', 'IN_USE'])[1 + g % 2], now(), 0
+                FROM generate_series(1, ?) g
+                """, DEVICES);
+        jdbcTemplate.execute("ANALYZE devices");
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        LongAdder cpuNanos = new LongAdder();
+        LoadDriver.Operation list = (thread, i) -> {
+            long begin = threads.getCurrentThreadCpuTime();
+            deviceService.findDevices(FILTERS[(int) ((thread + i) % FILTERS.length)]);
+            cpuNanos.add(threads.getCurrentThreadCpuTime() - begin);
+            return true;
+        };
+
+        LoadDriver.run(CLIENTS, Duration.ZERO, Duration.ofSeconds(5), list);
+        cpuNanos.reset();
+        LoadDriver.Result result = LoadDriver.run(CLIENTS, Duration.ZERO, Duration.ofSeconds(10), list);
+
+        double cpuMicrosPerCall = cpuNanos.sum() / 1e3 / (result.succeeded() + result.failed());
+        report(getClass().getSimpleName(), "%s, %.1f µs CPU per call".formatted(result, cpuMicrosPerCall));
+        assertThat(result.failed()).isZero();
+    }
+}
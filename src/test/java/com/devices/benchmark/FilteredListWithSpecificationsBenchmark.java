@@ -0,0 +1,10 @@
+package com.devices.benchmark;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Baseline for {@link FilteredListBenchmark}: every call builds a Criteria query from {@code DeviceSpecification}.
+ */
+@TestPropertySource(properties = "devices.filter-queries.precompiled=false")
+class FilteredListWithSpecificationsBenchmark extends FilteredListBenchmark {
+}
@@ -0,0 +1,56 @@
+package com.devices.benchmark;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Many clients flipping the state of one device. Measures successful updates per second and how many
+ * requests still end in a 409 with the server-side retry of state-only patches enabled.
+ */
+class HotDevicePatchBenchmark extends AbstractBenchmark {
+
+    private static final int CLIENTS = 32;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void stateOnlyPatchesOnOneHotDevice() throws Exception {
+        String deviceId = given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        {"name": "Hot Device", "brand": "Bench"}
+                        """)
+                .when()
+                .post("/api/v1/devices")
+                .then()
+                .statusCode(201)
+                .extract()
+                .jsonPath()
+                .getString("id");
+        String path = "/api/v1/devices/" + deviceId;
+        LoadDriver.Operation flipState = (thread, i) -> {
+            String state = (thread + i) % 2 == 0 ? "IN_USE" : "AVAILABLE";
+            HttpResponse<String> response = send(json(path, "PATCH", "{\"state\":\"" + state + "\"}").build());
+            return response.statusCode() == 200;
+        };
+
+        LoadDriver.run(CLIENTS, Duration.ZERO, Duration.ofSeconds(3), flipState);
+        double retriesBefore = retries();
+        LoadDriver.Result result = LoadDriver.run(CLIENTS, Duration.ZERO, Duration.ofSeconds(10), flipState);
+
+        report(getClass().getSimpleName(), "%s, %.0f server-side retries".formatted(result, retries() - retriesBefore));
+    }
+
+    private double retries() {
+        var counter = meterRegistry.find("devices.optimistic_lock.retries").counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
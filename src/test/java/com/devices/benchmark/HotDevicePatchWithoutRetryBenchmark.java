@@ -0,0 +1,11 @@
+package com.devices.benchmark;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Baseline for {@link HotDevicePatchBenchmark}: without the write lock or retries, every optimistic-lock
+ * conflict is returned to the client.
+ */
+@TestPropertySource(properties = {"devices.patch-retry.enabled=false", "devices.write-lock.enabled=false"})
+class HotDevicePatchWithoutRetryBenchmark extends HotDevicePatchBenchmark {
+}
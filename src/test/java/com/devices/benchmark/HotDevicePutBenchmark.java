@@ -0,0 +1,56 @@
+package com.devices.benchmark;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Many clients replacing one device with PUT, which is never retried server-side. Failed requests are
+ * 409 version conflicts; with the per-device write lock enabled they queue locally instead.
+ */
+class HotDevicePutBenchmark extends AbstractBenchmark {
+
+    private static final int CLIENTS = 32;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void fullUpdatesOfOneHotDevice() throws Exception {
+        String deviceId = given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        {"name": "Hot Device", "brand": "Bench"}
+                        """)
+                .when()
+                .post("/api/v1/devices")
+                .then()
+                .statusCode(201)
+                .extract()
+                .jsonPath()
+                .getString("id");
+        String path = "/api/v1/devices/" + deviceId;
+        LoadDriver.Operation replace = (thread, i) -> {
+            String state = (thread + i) % 2 == 0 ? "IN_USE" : "AVAILABLE";
+            String body = "{\"name\":\"Hot Device %d\",\"brand\":\"Bench\",\"state\":\"%s\"}".formatted(thread, state);
+            HttpResponse<String> response = send(json(path, "PUT", body).build());
+            return response.statusCode() == 200;
+        };
+
+        LoadDriver.run(CLIENTS, Duration.ZERO, Duration.ofSeconds(3), replace);
+        Timer waitTime = meterRegistry.find("devices.write_lock.wait").timer();
+        double waitBefore = waitTime == null ? 0 : waitTime.totalTime(TimeUnit.MILLISECONDS);
+        LoadDriver.Result result = LoadDriver.run(CLIENTS, Duration.ZERO, Duration.ofSeconds(10), replace);
+        double waited = waitTime == null ? 0 : waitTime.totalTime(TimeUnit.MILLISECONDS) - waitBefore;
+
+        report(getClass().getSimpleName(), "%s, %.0f ms total lock wait".formatted(result, waited));
+    }
+}
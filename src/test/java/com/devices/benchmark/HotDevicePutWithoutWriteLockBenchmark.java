@@ -0,0 +1,10 @@
+package com.devices.benchmark;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Baseline for {@link HotDevicePutBenchmark}: concurrent writers race on the row version in the database.
+ */
+@TestPropertySource(properties = "devices.write-lock.enabled=false")
+class HotDevicePutWithoutWriteLockBenchmark extends HotDevicePutBenchmark {
+}
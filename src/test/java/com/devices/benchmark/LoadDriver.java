@@ -0,0 +1,113 @@
+package com.devices.benchmark;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop load generator: a fixed number of threads run an operation back to back for a given time.
+ */
+final class LoadDriver {
+
+    private LoadDriver() { }
+
+    @FunctionalInterface
+    interface Operation {
+        /**
+         * @return whether the call succeeded
+         */
+        boolean call(int thread, long iteration) throws Exception;
+    }
+
+    record Result(long succeeded, long failed, Duration elapsed, long p50Nanos, long p99Nanos, long maxNanos) {
+
+        double throughput() {
+            return succeeded / (elapsed.toNanos() / 1e9);
+        }
+
+        double failureRatio() {
+            long total = succeeded + failed;
+            return total == 0 ? 0 : (double) failed / total;
+        }
+
+        @Override
+        public String toString() {
+            return "%.0f ops/s, %d ok, %d failed (%.1f%%), p50 %.2f ms, p99 %.2f ms, max %.2f ms".formatted(
+                    throughput(), succeeded, failed, failureRatio() * 100,
+                    p50Nanos / 1e6, p99Nanos / 1e6, maxNanos / 1e6);
+        }
+    }
+
+    static Result run(int threads, Duration warmup, Duration duration, Operation operation) throws Exception {
+        if (!warmup.isZero()) {
+            drive(threads, warmup, operation);
+        }
+        return drive(threads, duration, operation);
+    }
+
+    private static Result drive(int threads, Duration duration, Operation operation) throws Exception {
+        CyclicBarrier start = new CyclicBarrier(threads + 1);
+        List<Future<long[]>> futures = new ArrayList<>();
+        long[] succeeded = new long[threads];
+        long[] failed = new long[threads];
+        long elapsed;
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    start.await();
+                    long deadline = System.nanoTime() + duration.toNanos();
+                    for (long i = 0; System.nanoTime() < deadline; i++) {
+                        long begin = System.nanoTime();
+                        boolean ok;
+                        try {
+                            ok = operation.call(thread, i);
+                        } catch (Exception e) {
+                            ok = false;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - begin;
+                        if (ok) {
+                            succeeded[thread]++;
+                        } else {
+                            failed[thread]++;
+                        }
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+            start.await();
+            long begin = System.nanoTime();
+            List<long[]> perThread = new ArrayList<>();
+            for (Future<long[]> future : futures) {
+                perThread.add(future.get());
+            }
+            elapsed = System.nanoTime() - begin;
+            long[] all = perThread.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            return new Result(
+                    Arrays.stream(succeeded).sum(),
+                    Arrays.stream(failed).sum(),
+                    Duration.ofNanos(elapsed),
+                    percentile(all, 0.50),
+                    percentile(all, 0.99),
+                    all.length == 0 ? 0 : all[all.length - 1]
+            );
+        }
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)];
+    }
+}